@@ -0,0 +1,97 @@
+package com.btc_store.dataintegration.benchmark;
+
+import com.btc_store.dataintegration.benchmark.support.BenchmarkData;
+import com.btc_store.dataintegration.csv.CsvRowIterator;
+import com.btc_store.dataintegration.csv.MappedCsvReader;
+import com.opencsv.CSVReaderHeaderAware;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of generated csv files of different width and length, by {@link CSVReaderHeaderAware} alone, by the
+ * {@link CsvRowIterator} the file import reads with and by the {@link MappedCsvReader} of large files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParseBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int columns;
+
+    @Param({"1000", "50000"})
+    public int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = Files.createTempFile("benchmark-" + columns + "x" + rows, ".csv");
+        BenchmarkData.writeCsv(file, columns, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int readMap(Blackhole blackhole) throws Exception {
+        var count = 0;
+        try (var reader = new CSVReaderHeaderAware(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            Map<String, String> row;
+            while (Objects.nonNull(row = reader.readMap())) {
+                blackhole.consume(row);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int rowIterator(Blackhole blackhole) throws Exception {
+        var count = 0;
+        try (var iterator = new CsvRowIterator(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int mappedRowIterator(Blackhole blackhole) throws Exception {
+        var count = 0;
+        try (var iterator = new CsvRowIterator(file)) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //a single column is decoded, as a feed of which only a few columns are bound...
+    @Benchmark
+    public int mappedFirstColumn(Blackhole blackhole) throws Exception {
+        var count = 0;
+        try (var reader = new MappedCsvReader(file)) {
+            while (reader.nextRow()) {
+                blackhole.consume(reader.value(0));
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,58 @@
+package com.btc_store.dataintegration.benchmark;
+
+import com.btc_store.dataintegration.benchmark.model.BenchmarkProductModel;
+import com.btc_store.dataintegration.benchmark.support.BenchmarkData;
+import com.btc_store.dataintegration.plan.ImportPlan;
+import com.btc_store.dataintegration.plan.ImportPlanCache;
+import com.btc_store.dataintegration.row.RowHeader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Header handling: compiling the headers of a feed into an {@link ImportPlan} and matching the headers of every row
+ * against the plan in use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportPlanBenchmark {
+
+    @Param({"narrow", "wide"})
+    public String shape;
+
+    private RowHeader headers;
+    private RowHeader rowHeaders;
+    private ImportPlanCache uncachedPlans;
+    private ImportPlanCache cachedPlans;
+    private ImportPlan plan;
+
+    @Setup
+    public void setUp() throws Exception {
+        headers = RowHeader.of("narrow".equals(shape) ? BenchmarkData.NARROW_HEADERS : BenchmarkData.PRODUCT_HEADERS);
+        //headers of a row are an other instance with the same names, as read from an other source...
+        rowHeaders = RowHeader.of(headers.getNames());
+        //a cache of no entries compiles the plan on every call...
+        uncachedPlans = new ImportPlanCache(0);
+        cachedPlans = new ImportPlanCache(16);
+        plan = cachedPlans.getPlan(BenchmarkProductModel.class, headers);
+    }
+
+    @Benchmark
+    public ImportPlan compile() throws Exception {
+        return uncachedPlans.getPlan(BenchmarkProductModel.class, headers);
+    }
+
+    @Benchmark
+    public ImportPlan cachedPlan() throws Exception {
+        return cachedPlans.getPlan(BenchmarkProductModel.class, rowHeaders);
+    }
+
+    @Benchmark
+    public boolean matchRowHeaders() {
+        return plan.matches(rowHeaders);
+    }
+}
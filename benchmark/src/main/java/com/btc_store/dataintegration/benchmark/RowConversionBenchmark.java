@@ -0,0 +1,64 @@
+package com.btc_store.dataintegration.benchmark;
+
+import com.btc_store.dataintegration.benchmark.model.BenchmarkProductModel;
+import com.btc_store.dataintegration.benchmark.support.BenchmarkData;
+import com.btc_store.dataintegration.benchmark.support.ImportEngineFixture;
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.dataintegration.row.Rows;
+import com.btc_store.domain.enums.ImportProcessType;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full row to model conversion of {@code ImportServiceImpl}: header plans, unique and relation lookups, every
+ * attribute converter and binding. Lookups and saves are answered in memory, so only the cpu cost is measured. Map
+ * rows are measured with their adaption to {@link Row}s, indexed rows are given as the readers produce them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowConversionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    //share of the rows which update an existing model instead of creating one...
+    @Param({"0", "50", "100"})
+    public int existingPercent;
+
+    private ImportEngineFixture fixture;
+    private List<Map<String, String>> data;
+    private List<Row> indexedData;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new ImportEngineFixture();
+        BenchmarkData.seed(fixture.getStore(), fixture.getSiteModel(), rows * existingPercent / 100);
+        data = BenchmarkData.productRows(rows);
+        indexedData = Rows.of(data);
+
+        //a failing import would only measure the error path...
+        var isSuccessPair = importRows();
+        if (BooleanUtils.isFalse(isSuccessPair.getKey())) {
+            throw new IllegalStateException(isSuccessPair.getValue());
+        }
+    }
+
+    @Benchmark
+    public Pair<Boolean, String> importRows() {
+        return fixture.getImportService().importData(BenchmarkProductModel.class, data, ImportProcessType.SAVE, fixture.getSiteModel());
+    }
+
+    @Benchmark
+    public Pair<Boolean, String> importIndexedRows() {
+        return fixture.getImportService().importRows(BenchmarkProductModel.class, indexedData, ImportProcessType.SAVE, fixture.getSiteModel());
+    }
+}
@@ -0,0 +1,71 @@
+package com.btc_store.dataintegration.benchmark;
+
+import com.btc_store.dataintegration.benchmark.model.BenchmarkProductModel;
+import com.btc_store.dataintegration.binder.PropertyBinders;
+import com.btc_store.dataintegration.convert.ValueConverter;
+import com.btc_store.dataintegration.convert.ValueConverters;
+import com.btc_store.dataintegration.enums.MergeStrategyEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of a single cell for every property type, by the lenient converters of the import engine and the
+ * strict ones of the media import.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueConverterBenchmark {
+
+    //property and cell values of a case, values are converted in turn...
+    private static final Map<String, Object[]> CASES = Map.ofEntries(
+            Map.entry("double", new Object[]{"price", new String[]{"12.5", "999.99", "0.1", "abc"}}),
+            Map.entry("integer", new Object[]{"stock", new String[]{"1", "250", "10000", "-3"}}),
+            Map.entry("float", new Object[]{"weight", new String[]{"0.25", "1.5", "19.999", "7"}}),
+            Map.entry("long", new Object[]{"barcode", new String[]{"8690000000001", "8690000000002", "42", "8690000999999"}}),
+            Map.entry("boolean", new Object[]{"active", new String[]{"true", "false", "TRUE", ""}}),
+            Map.entry("bigDecimal", new Object[]{"amount", new String[]{"12.3400", "0.0001", "1000000", "-5.5"}}),
+            Map.entry("date", new Object[]{"releaseDate", new String[]{"1.1.2024", "15.06.2023", "31.12.2020", "9.9.2009"}}),
+            Map.entry("dateTime", new Object[]{"releaseDate", new String[]{"20240101120000", "20231231235959", "20200615080000", "20090909090909"}}),
+            //every value has an other pattern, the detected pattern misses on each cell...
+            Map.entry("dateMixed", new Object[]{"releaseDate", new String[]{"1.1.2024", "20240101", "1/1/2024 10:15", "20240101120000"}}),
+            Map.entry("duration", new Object[]{"warranty", new String[]{"P30D", "P365D", "PT12H", "P2D"}}),
+            Map.entry("enum", new Object[]{"availability", new String[]{"IN_STOCK", "low_stock", "Pre_Order", "DISCONTINUED"}}),
+            Map.entry("stringSet", new Object[]{"keywords", new String[]{"a;b;c", "red;green", "x", "k1;k2;k3;k4;k5"}}),
+            Map.entry("integerList", new Object[]{"sizes", new String[]{"36;38;40", "42", "37;39", "40;41;42;43"}}));
+
+    @Param({"double", "integer", "float", "long", "boolean", "bigDecimal", "date", "dateTime", "dateMixed", "duration",
+            "enum", "stringSet", "integerList"})
+    public String type;
+
+    @Param({"lenient", "strict"})
+    public String mode;
+
+    private ValueConverter converter;
+    private String[] values;
+    private int index;
+
+    @Setup
+    public void setUp() throws Exception {
+        var binder = PropertyBinders.get(BenchmarkProductModel.class, (String) CASES.get(type)[0]);
+        values = (String[]) CASES.get(type)[1];
+        converter = "strict".equals(mode) ? ValueConverters.strictOf(binder) : ValueConverters.of(binder, MergeStrategyEnum.MERGE);
+    }
+
+    @Benchmark
+    public Object convert() throws Exception {
+        var value = values[index++ & 3];
+        try {
+            //collections are not merged into a model, so every call builds a new one...
+            return converter.convert(value, null);
+        } catch (NumberFormatException e) {
+            //strict numbers fail on invalid values...
+            return e;
+        }
+    }
+}
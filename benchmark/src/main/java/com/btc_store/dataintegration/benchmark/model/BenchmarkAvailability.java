@@ -0,0 +1,6 @@
+package com.btc_store.dataintegration.benchmark.model;
+
+public enum BenchmarkAvailability {
+
+    IN_STOCK, LOW_STOCK, OUT_OF_STOCK, PRE_ORDER, DISCONTINUED
+}
@@ -0,0 +1,12 @@
+package com.btc_store.dataintegration.benchmark.model;
+
+import com.btc_store.domain.model.custom.extend.ItemModel;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BenchmarkBrandModel extends ItemModel {
+
+    private String code;
+}
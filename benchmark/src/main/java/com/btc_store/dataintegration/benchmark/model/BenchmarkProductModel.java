@@ -0,0 +1,36 @@
+package com.btc_store.dataintegration.benchmark.model;
+
+import com.btc_store.domain.model.custom.extend.ItemModel;
+import com.btc_store.domain.model.custom.localize.Localized;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plain model having a property of every type the import engine converts, it is never persisted.
+ */
+@Getter
+@Setter
+public class BenchmarkProductModel extends ItemModel {
+
+    private String code;
+    private Localized name;
+    private Double price;
+    private Integer stock;
+    private Float weight;
+    private Long barcode;
+    private Boolean active;
+    private BigDecimal amount;
+    private Date releaseDate;
+    private Duration warranty;
+    private BenchmarkAvailability availability;
+    private Set<String> keywords;
+    private List<Integer> sizes;
+    private BenchmarkBrandModel brand;
+    private Set<BenchmarkCategoryModel> categories;
+}
@@ -0,0 +1,125 @@
+package com.btc_store.dataintegration.benchmark.support;
+
+import com.btc_store.dataintegration.benchmark.model.BenchmarkAvailability;
+import com.btc_store.dataintegration.benchmark.model.BenchmarkBrandModel;
+import com.btc_store.dataintegration.benchmark.model.BenchmarkCategoryModel;
+import com.btc_store.dataintegration.benchmark.model.BenchmarkProductModel;
+import com.btc_store.domain.model.custom.SiteModel;
+import com.opencsv.CSVWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Generated rows and csv files of the benchmarks. Generation is seeded, so every run measures the same data.
+ */
+public final class BenchmarkData {
+
+    public static final List<String> NARROW_HEADERS = List.of("code[unique]", "price", "active");
+
+    public static final List<String> PRODUCT_HEADERS = List.of("code[unique]", "name[lang=tr]", "price", "stock", "weight",
+            "barcode", "active", "amount", "releaseDate", "warranty", "availability", "keywords[mode=override]",
+            "sizes[mode=override]", "brand(code)", "categories(code)");
+
+    private static final int BRAND_COUNT = 20;
+    private static final int CATEGORY_COUNT = 50;
+    private static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates the brands and categories referenced by product rows and the first {@code existingCount} products.
+     */
+    public static void seed(InMemoryModelStore store, SiteModel siteModel, int existingCount) {
+        for (var i = 0; i < BRAND_COUNT; i++) {
+            var brand = new BenchmarkBrandModel();
+            brand.setCode("B" + i);
+            store.put(BenchmarkBrandModel.class, Map.of("code", brand.getCode(), "site", siteModel), brand);
+        }
+        for (var i = 0; i < CATEGORY_COUNT; i++) {
+            var category = new BenchmarkCategoryModel();
+            category.setCode("C" + i);
+            store.put(BenchmarkCategoryModel.class, Map.of("code", category.getCode(), "site", siteModel), category);
+        }
+        for (var i = 0; i < existingCount; i++) {
+            var product = new BenchmarkProductModel();
+            product.setCode(productCode(i));
+            store.put(BenchmarkProductModel.class, Map.of("code", product.getCode()), product);
+        }
+    }
+
+    /**
+     * @return product rows having a value in every column of {@link #PRODUCT_HEADERS}
+     */
+    public static List<Map<String, String>> productRows(int count) {
+        var random = new Random(SEED);
+        var availabilities = BenchmarkAvailability.values();
+        var rows = new ArrayList<Map<String, String>>(count);
+        for (var i = 0; i < count; i++) {
+            var row = new LinkedHashMap<String, String>();
+            row.put("code[unique]", productCode(i));
+            row.put("name[lang=tr]", " Ürün " + i + " ");
+            row.put("price", String.format(Locale.ROOT, "%.2f", random.nextDouble() * 1000));
+            row.put("stock", String.valueOf(random.nextInt(10_000)));
+            row.put("weight", String.format(Locale.ROOT, "%.3f", random.nextFloat() * 20));
+            row.put("barcode", String.valueOf(8_690_000_000_000L + i));
+            row.put("active", String.valueOf(random.nextBoolean()));
+            row.put("amount", String.format(Locale.ROOT, "%.4f", random.nextDouble() * 100));
+            row.put("releaseDate", String.format("%d.%d.%d", 1 + random.nextInt(28), 1 + random.nextInt(12), 2000 + random.nextInt(25)));
+            row.put("warranty", "P" + (1 + random.nextInt(730)) + "D");
+            row.put("availability", availabilities[random.nextInt(availabilities.length)].name().toLowerCase(Locale.ROOT));
+            row.put("keywords[mode=override]", "k" + random.nextInt(100) + ";k" + random.nextInt(100) + ";k" + random.nextInt(100));
+            row.put("sizes[mode=override]", (36 + random.nextInt(4)) + ";" + (40 + random.nextInt(6)));
+            row.put("brand(code)", "B" + random.nextInt(BRAND_COUNT));
+            row.put("categories(code)", "C" + random.nextInt(CATEGORY_COUNT) + ";C" + random.nextInt(CATEGORY_COUNT));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * @return row of the narrow headers, used to switch the header signature
+     */
+    public static Map<String, String> narrowRow() {
+        var row = new LinkedHashMap<String, String>();
+        row.put("code[unique]", productCode(0));
+        row.put("price", "1.0");
+        row.put("active", "true");
+        return row;
+    }
+
+    /**
+     * Writes a csv file of generic columns cycling through plain, numeric, date and quoted values.
+     */
+    public static void writeCsv(Path file, int columns, int rows) throws IOException {
+        var random = new Random(SEED);
+        try (var writer = new CSVWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            var line = new String[columns];
+            for (var column = 0; column < columns; column++) {
+                line[column] = "column" + column;
+            }
+            writer.writeNext(line, false);
+
+            for (var row = 0; row < rows; row++) {
+                for (var column = 0; column < columns; column++) {
+                    line[column] = switch (column % 4) {
+                        case 0 -> "value" + row + "_" + column;
+                        case 1 -> String.valueOf(random.nextInt(1_000_000));
+                        case 2 -> String.format("%d.%d.%d", 1 + random.nextInt(28), 1 + random.nextInt(12), 2000 + random.nextInt(25));
+                        default -> "text, with \"quotes\" " + random.nextInt(1000);
+                    };
+                }
+                //only the values needing quotes are quoted, as exported by most tools...
+                writer.writeNext(line, false);
+            }
+        }
+    }
+
+    private static String productCode(int index) {
+        return "P" + index;
+    }
+}
@@ -0,0 +1,55 @@
+package com.btc_store.dataintegration.benchmark.support;
+
+import com.btc_store.dataintegration.delta.RowFingerprintStore;
+import com.btc_store.dataintegration.metrics.ImportMetrics;
+import com.btc_store.dataintegration.plan.ImportPlanCache;
+import com.btc_store.dataintegration.service.ImportService;
+import com.btc_store.dataintegration.service.impl.ImportServiceImpl;
+import com.btc_store.domain.model.custom.SiteModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Getter;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Objects;
+
+/**
+ * {@link ImportServiceImpl} wired with in-memory services instead of a spring context. Properties are set as in
+ * {@code application.properties}; pipeline and delta import are disabled, so a benchmark measures the conversion of
+ * the calling thread only.
+ */
+@Getter
+public class ImportEngineFixture {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final long PLAN_CACHE_SIZE = 256;
+
+    private final SiteModel siteModel;
+    private final InMemoryModelStore store = new InMemoryModelStore();
+    private final ImportService importService;
+
+    public ImportEngineFixture() {
+        siteModel = new SiteModel();
+        siteModel.setCode("benchmark");
+
+        var importServiceImpl = new ImportServiceImpl(InMemoryServices.modelService(), InMemoryServices.siteService(siteModel),
+                new StaticMessageSource(), InMemoryServices.searchService(store), new ObjectMapper(),
+                new ImportPlanCache(PLAN_CACHE_SIZE), new InMemoryModelLookupService(store), new RowFingerprintStore(),
+                new ImportMetrics(new SimpleMeterRegistry()));
+        setField(importServiceImpl, "chunkSize", CHUNK_SIZE);
+        setField(importServiceImpl, "deltaEnabled", false);
+        setField(importServiceImpl, "syncSoftDeleteField", "");
+        setField(importServiceImpl, "pipelineEnabled", false);
+        importService = importServiceImpl;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        var field = ReflectionUtils.findField(target.getClass(), name);
+        if (Objects.isNull(field)) {
+            throw new IllegalStateException(String.format("%s has no %s field", target.getClass().getSimpleName(), name));
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
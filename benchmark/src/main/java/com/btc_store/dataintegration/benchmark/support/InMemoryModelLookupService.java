@@ -0,0 +1,65 @@
+package com.btc_store.dataintegration.benchmark.support;
+
+import com.btc_store.dataintegration.lookup.LookupKey;
+import com.btc_store.dataintegration.lookup.ReferenceDictionary;
+import com.btc_store.dataintegration.service.ModelLookupService;
+import com.btc_store.domain.model.custom.extend.ItemModel;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.*;
+
+/**
+ * Bulk lookups of the import engine answered from an {@link InMemoryModelStore}. Sync lookups are not supported.
+ */
+@RequiredArgsConstructor
+public class InMemoryModelLookupService implements ModelLookupService {
+
+    private final InMemoryModelStore store;
+
+    @Override
+    public <T extends ItemModel> Map<LookupKey, Optional<T>> searchByKeys(Class<T> itemType, Collection<LookupKey> keys) {
+        var result = new HashMap<LookupKey, Optional<T>>();
+        for (var key : keys) {
+            result.put(key, Optional.ofNullable(itemType.cast(store.find(itemType, key.getParams()))));
+        }
+        return result;
+    }
+
+    @Override
+    public ReferenceDictionary resolveReferences(Map<Class<?>, Set<LookupKey>> references) {
+        var dictionary = new HashMap<Pair<Class<?>, LookupKey>, ItemModel>();
+        for (var reference : references.entrySet()) {
+            for (var key : reference.getValue()) {
+                var model = store.find(reference.getKey(), key.getParams());
+                if (Objects.isNull(model)) {
+                    throw new IllegalArgumentException(String.format("%s%s relation value could not be found", reference.getKey().getSimpleName(), key));
+                }
+                dictionary.put(new ImmutablePair<>(reference.getKey(), key), model);
+            }
+        }
+        return new ReferenceDictionary(dictionary);
+    }
+
+    @Override
+    public Object identifierOf(ItemModel model) {
+        return (long) System.identityHashCode(model);
+    }
+
+    @Override
+    public <T extends ItemModel> List<Object> searchIds(Class<T> itemType, Map<String, Object> params, Map<String, Object> excludedParams,
+                                                        Object after, int limit) {
+        throw new UnsupportedOperationException("Sync is not benchmarked");
+    }
+
+    @Override
+    public <T extends ItemModel> List<T> searchByIds(Class<T> itemType, Collection<Object> ids) {
+        throw new UnsupportedOperationException("Sync is not benchmarked");
+    }
+
+    @Override
+    public boolean isReferenced(ItemModel model) {
+        throw new UnsupportedOperationException("Media import is not benchmarked");
+    }
+}
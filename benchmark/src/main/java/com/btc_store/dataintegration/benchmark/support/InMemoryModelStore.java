@@ -0,0 +1,32 @@
+package com.btc_store.dataintegration.benchmark.support;
+
+import com.btc_store.dataintegration.lookup.LookupKey;
+import com.btc_store.domain.model.custom.extend.ItemModel;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Models of a benchmark keyed by their type and query parameters, it stands for the database.
+ */
+public class InMemoryModelStore {
+
+    private final Map<Pair<Class<?>, LookupKey>, ItemModel> models = new HashMap<>();
+
+    public void put(Class<?> type, Map<String, Object> params, ItemModel model) {
+        models.put(new ImmutablePair<>(type, new LookupKey(params)), model);
+    }
+
+    /**
+     * @return model having the given parameters or {@code null}
+     */
+    public ItemModel find(Class<?> type, Map<String, Object> params) {
+        return models.get(new ImmutablePair<Class<?>, LookupKey>(type, new LookupKey(params)));
+    }
+
+    public int size() {
+        return models.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.btc_store.dataintegration.benchmark.support;
+
+import com.btc_store.domain.model.custom.SiteModel;
+import com.btc_store.service.ModelService;
+import com.btc_store.service.SearchService;
+import com.btc_store.service.SiteService;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory stand-ins of the platform services used by the import engine, so benchmarks measure the cpu cost of an
+ * import without a database. Stand-ins are proxies answering only the methods the engine calls; every other method
+ * does nothing and returns {@code null} or zero.
+ */
+public final class InMemoryServices {
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Exception;
+    }
+
+    private InMemoryServices() {
+    }
+
+    /**
+     * Models are created by their default constructor, saved and removed models are not kept.
+     */
+    public static ModelService modelService() {
+        return proxy(ModelService.class, (method, args) -> {
+            if (method.getName().equals("create")) {
+                return ((Class<?>) args[0]).getDeclaredConstructor().newInstance();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Models are searched in the store; a missing model is returned as {@code null} where the platform service throws
+     * {@code ModelNotFoundException}, the import engine handles both the same way.
+     */
+    public static SearchService searchService(InMemoryModelStore store) {
+        return proxy(SearchService.class, (method, args) -> switch (method.getName()) {
+            case "searchSingleResult" -> store.find((Class<?>) args[0], (Map<String, Object>) args[1]);
+            //relations of a stored model are already loaded...
+            case "searchSingleResultRelation" -> args[0];
+            default -> null;
+        });
+    }
+
+    /**
+     * @return site service answering every site lookup with the given site
+     */
+    public static SiteService siteService(SiteModel siteModel) {
+        return proxy(SiteService.class, (method, args) -> SiteModel.class.isAssignableFrom(method.getReturnType()) ? siteModel : null);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (Object.class.equals(method.getDeclaringClass())) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> "InMemory" + type.getSimpleName();
+                };
+            }
+            var result = handler.handle(method, Objects.isNull(args) ? new Object[0] : args);
+            if (Objects.isNull(result) && method.getReturnType().isPrimitive() && !void.class.equals(method.getReturnType())) {
+                //default value of the primitive type...
+                return Array.get(Array.newInstance(method.getReturnType(), 1), 0);
+            }
+            return result;
+        }));
+    }
+}
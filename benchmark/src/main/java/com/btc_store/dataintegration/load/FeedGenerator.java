@@ -0,0 +1,205 @@
+package com.btc_store.dataintegration.load;
+
+import com.btc_store.dataintegration.constant.DataIntegrationConstant;
+import com.btc_store.domain.model.custom.MediaModel;
+import com.btc_store.domain.model.custom.SiteModel;
+import com.btc_store.domain.model.custom.extend.ItemModel;
+import com.btc_store.domain.model.custom.localize.Localized;
+import com.btc_store.service.constant.ServiceConstant;
+import com.opencsv.CSVWriter;
+import constant.PackageConstant;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.lang3.StringUtils;
+import util.StoreClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Generates csv feeds in the header dialect of the import engine for a domain type. Columns are chosen from the
+ * properties the type declares itself: plain and enum attributes, {@code [lang=..]} columns of localized properties
+ * and {@code (code)} relations to types having a code. Relation targets get their own feed, which is imported
+ * before the measured feeds.
+ */
+@RequiredArgsConstructor
+public class FeedGenerator {
+
+    private static final long SEED = 42L;
+    private static final String CODE = "code";
+    private static final String SITE = "site";
+    private static final String UNIQUE_CODE = DataIntegrationConstant.CODE_FIELD;
+    private static final Set<String> PLAIN_TYPES = Set.of("String", "Integer", "int", "Long", "long", "Double", "double",
+            "Float", "float", "BigDecimal", "Boolean", "boolean", "Date");
+
+    public record Feed(String name, Path file, int rows) {
+    }
+
+    /**
+     * @param setup    feeds of the site and relation targets, imported once
+     * @param measured feeds imported on every iteration
+     */
+    public record Feeds(List<Feed> setup, List<Feed> measured) {
+    }
+
+    private record Column(String header, IntFunction<String> value) {
+    }
+
+    private final LoadOptions options;
+    private final String mediaBaseUrl;
+    private final Random random = new Random(SEED);
+
+    public Feeds generate(Path folder) throws Exception {
+        Files.createDirectories(folder);
+        var itemType = modelClass(options.getItemType());
+        var isSite = SiteModel.class.isAssignableFrom(itemType);
+        if (!hasCode(itemType)) {
+            throw new IllegalArgumentException(itemType.getSimpleName() + " has no code property, feeds are keyed by code");
+        }
+
+        var setup = new ArrayList<Feed>();
+        if (!isSite) {
+            setup.add(write(folder, "Save_Site", List.of(new Column(UNIQUE_CODE, row -> options.getSite())), 1));
+        }
+
+        var columns = new ArrayList<Column>();
+        columns.add(new Column(UNIQUE_CODE, row -> "L" + row));
+        if (!isSite) {
+            columns.add(new Column(DataIntegrationConstant.SITE_FIELD, row -> options.getSite()));
+        }
+
+        var attributes = 0;
+        var localized = 0;
+        var relations = 0;
+        var targets = new HashSet<Class<?>>();
+        for (var descriptor : ownProperties(itemType)) {
+            var name = descriptor.getName();
+            var type = descriptor.getPropertyType();
+            var target = relationTarget(descriptor);
+            if (Localized.class.equals(type) && localized < options.getLocalizedColumns()) {
+                localized++;
+                for (var language : options.getLanguages()) {
+                    columns.add(new Column(name + "[lang=" + language + "]", row -> language + " " + name + " " + row));
+                }
+            } else if (Objects.nonNull(target) && relations < options.getRelations()) {
+                relations++;
+                if (targets.add(target)) {
+                    setup.add(writeTarget(folder, target, isSite));
+                }
+                var fanOut = Collection.class.isAssignableFrom(type) ? options.getFanOut() : 1;
+                columns.add(new Column(name + "(code)", row -> relationValue(fanOut)));
+            } else if ((type.isEnum() || PLAIN_TYPES.contains(type.getSimpleName())) && attributes < options.getColumns()) {
+                attributes++;
+                columns.add(new Column(name, row -> attributeValue(type, name, row)));
+            }
+        }
+
+        var measured = new ArrayList<Feed>();
+        measured.add(write(folder, "Save_" + options.getItemType(), columns, options.getRows()));
+        if (options.getMediaRows() > 0) {
+            var mediaColumns = new ArrayList<Column>();
+            mediaColumns.add(new Column(UNIQUE_CODE, row -> "L" + row));
+            if (!isSite) {
+                mediaColumns.add(new Column(DataIntegrationConstant.SITE_FIELD, row -> options.getSite()));
+            }
+            mediaColumns.add(new Column("field", row -> options.getMediaField()));
+            mediaColumns.add(new Column("url", row -> mediaBaseUrl + row + ".jpg"));
+            mediaColumns.add(new Column("secure", row -> "false"));
+            measured.add(write(folder, "File_" + options.getItemType(), mediaColumns, options.getMediaRows()));
+        }
+        return new Feeds(setup, measured);
+    }
+
+    private Feed writeTarget(Path folder, Class<?> target, boolean isSite) throws IOException {
+        var columns = new ArrayList<Column>();
+        columns.add(new Column(UNIQUE_CODE, row -> "R" + row));
+        if (!isSite) {
+            columns.add(new Column(DataIntegrationConstant.SITE_FIELD, row -> options.getSite()));
+        }
+        return write(folder, "Save_" + StringUtils.removeEnd(target.getSimpleName(), PackageConstant.MODEL_PREFIX), columns, options.getRelationRows());
+    }
+
+    private Feed write(Path folder, String name, List<Column> columns, int rows) throws IOException {
+        var file = folder.resolve(name + ".csv");
+        try (var writer = new CSVWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.writeNext(columns.stream().map(Column::header).toArray(String[]::new), false);
+            var line = new String[columns.size()];
+            for (var row = 0; row < rows; row++) {
+                for (var column = 0; column < line.length; column++) {
+                    line[column] = columns.get(column).value().apply(row);
+                }
+                writer.writeNext(line, false);
+            }
+        }
+        return new Feed(name, file, rows);
+    }
+
+    private String attributeValue(Class<?> type, String name, int row) {
+        if (type.isEnum()) {
+            var constants = type.getEnumConstants();
+            return String.valueOf(constants[random.nextInt(constants.length)]);
+        }
+        return switch (type.getSimpleName()) {
+            case "Integer", "int" -> String.valueOf(random.nextInt(100_000));
+            case "Long", "long" -> String.valueOf(1_000_000_000L + row);
+            case "Double", "double", "Float", "float" -> String.format(Locale.ROOT, "%.2f", random.nextDouble() * 1000);
+            case "BigDecimal" -> String.format(Locale.ROOT, "%.4f", random.nextDouble() * 1000);
+            case "Boolean", "boolean" -> String.valueOf(random.nextBoolean());
+            case "Date" -> String.format("%d.%d.%d", 1 + random.nextInt(28), 1 + random.nextInt(12), 2000 + random.nextInt(25));
+            default -> name + " " + row;
+        };
+    }
+
+    private String relationValue(int fanOut) {
+        var codes = new LinkedHashSet<String>();
+        while (codes.size() < Math.min(fanOut, options.getRelationRows())) {
+            codes.add("R" + random.nextInt(options.getRelationRows()));
+        }
+        return String.join(";", codes);
+    }
+
+    /**
+     * @return writable properties declared below {@link ItemModel}, technical properties of the base model are left out
+     */
+    private List<PropertyDescriptor> ownProperties(Class<?> itemType) {
+        return Arrays.stream(PropertyUtils.getPropertyDescriptors(itemType))
+                .filter(d -> Objects.nonNull(d.getReadMethod()) && Objects.nonNull(d.getWriteMethod()))
+                .filter(d -> !d.getReadMethod().getDeclaringClass().isAssignableFrom(ItemModel.class))
+                .filter(d -> !StringUtils.equalsAny(d.getName(), CODE, SITE))
+                .sorted(Comparator.comparing(PropertyDescriptor::getName))
+                .toList();
+    }
+
+    /**
+     * @return type of a relation which can be given by code, media are bound by file feeds
+     */
+    private Class<?> relationTarget(PropertyDescriptor descriptor) {
+        Class<?> type = descriptor.getPropertyType();
+        if (Collection.class.isAssignableFrom(type)) {
+            var genericType = descriptor.getReadMethod().getGenericReturnType();
+            type = genericType instanceof ParameterizedType parameterizedType
+                    && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> elementClass ? elementClass : Object.class;
+        }
+        if (!ItemModel.class.isAssignableFrom(type) || MediaModel.class.isAssignableFrom(type) || SiteModel.class.isAssignableFrom(type)
+                || !hasCode(type)) {
+            return null;
+        }
+        return type;
+    }
+
+    private boolean hasCode(Class<?> type) {
+        return Arrays.stream(PropertyUtils.getPropertyDescriptors(type)).anyMatch(d -> CODE.equals(d.getName()));
+    }
+
+    //resolved the same way as the file import does...
+    private Class<?> modelClass(String typeName) throws Exception {
+        var className = StoreClassUtils.generateClassName(typeName, ServiceConstant.HYPHEN, PackageConstant.MODEL_PREFIX);
+        return StoreClassUtils.getClassForPackage(className, PackageConstant.DOMAIN_PACKAGE);
+    }
+}
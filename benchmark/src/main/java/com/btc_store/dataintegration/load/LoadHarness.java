@@ -0,0 +1,91 @@
+package com.btc_store.dataintegration.load;
+
+import com.btc_store.DataIntegrationApplication;
+import com.btc_store.dataintegration.service.FileImportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.BooleanUtils;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.SpringApplication;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * End to end load harness. Generated feeds are imported by {@link FileImportService#importFile} of the application
+ * running on an embedded h2 database, media urls are served by a {@link MediaStandInServer}. Every measured feed is
+ * imported {@code load.iterations} times; the first iteration creates the records, later ones update them.
+ * <p>
+ * {@code java -cp benchmark/target/benchmarks.jar com.btc_store.dataintegration.load.LoadHarness --load.itemType=Product --load.rows=200000}
+ */
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadOptions.parse(args);
+        var workFolder = Files.createTempDirectory("dataintegration-load");
+        try (var mediaServer = new MediaStandInServer(options.getMediaSize())) {
+            var feeds = new FeedGenerator(options, mediaServer.getBaseUrl()).generate(workFolder.resolve("feeds"));
+            try (var context = SpringApplication.run(DataIntegrationApplication.class, applicationArgs(options, workFolder))) {
+                var fileImportService = context.getBean(FileImportService.class);
+                var statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+                var probe = new LoadProbe(context.getBean(MeterRegistry.class), statistics);
+
+                for (var feed : feeds.setup()) {
+                    var isSuccessPair = fileImportService.importFile(feed.file().toFile(), false);
+                    if (BooleanUtils.isFalse(isSuccessPair.getKey())) {
+                        throw new IllegalStateException("Setup feed " + feed.name() + " could not be imported : " + isSuccessPair.getValue());
+                    }
+                }
+
+                for (var iteration = 1; iteration <= options.getIterations(); iteration++) {
+                    for (var feed : feeds.measured()) {
+                        probe.begin();
+                        var isSuccessPair = fileImportService.importFile(feed.file().toFile(), false);
+                        System.out.printf("iteration %d/%d %s", iteration, options.getIterations(),
+                                probe.end(feed, BooleanUtils.isTrue(isSuccessPair.getKey()), isSuccessPair.getValue()));
+                    }
+                }
+                System.out.printf("media requests served : %d%n", mediaServer.getServedRequests().get());
+            }
+        } finally {
+            FileUtils.deleteQuietly(workFolder.toFile());
+        }
+    }
+
+    /**
+     * @return defaults of the harness overridden by the application arguments given
+     */
+    private static String[] applicationArgs(LoadOptions options, Path workFolder) throws Exception {
+        var listenerFolder = Files.createDirectories(workFolder.resolve("listener"));
+        var uploadFolder = Files.createDirectories(workFolder.resolve("upload"));
+
+        var properties = new LinkedHashMap<String, String>();
+        properties.put("spring.profiles.active", "local");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:dataintegration-load;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.generate-ddl", "true");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+        properties.put("management.metrics.distribution.percentiles.dataintegration.import.phase", "0.5,0.95,0.99");
+        properties.put("server.port", "0");
+        //listener watches an empty folder, feeds are imported by the harness...
+        properties.put("csv.listener.process.folder.path", listenerFolder + "/");
+        properties.put("csv.file.upload.folder.path", uploadFolder.toString());
+        properties.put("csv.initial.data.file.status", "false");
+        properties.put("csv.initial.data.file.media.status", "false");
+        //info logs of every row and chunk would be measured too...
+        properties.put("logging.level.com.btc_store", "warn");
+        properties.putAll(options.getApplicationArgs());
+
+        return properties.entrySet().stream().map(LoadHarness::toArg).toArray(String[]::new);
+    }
+
+    private static String toArg(Map.Entry<String, String> property) {
+        return "--" + property.getKey() + "=" + property.getValue();
+    }
+}
@@ -0,0 +1,72 @@
+package com.btc_store.dataintegration.load;
+
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of the load harness given as {@code --load.<name>=<value>} arguments. Every other {@code --key=value}
+ * argument is passed to the application and overrides the harness defaults.
+ */
+@Getter
+public class LoadOptions {
+
+    private static final String PREFIX = "--load.";
+
+    //feed type name as used in file names, Category for Save_Category.csv...
+    private String itemType = "Category";
+    private String site = "load";
+    private int rows = 100_000;
+    private int iterations = 3;
+    //attribute columns other than code, site, localized and relation columns...
+    private int columns = 8;
+    private List<String> languages = List.of("tr", "en");
+    private int localizedColumns = 2;
+    private int relations = 2;
+    //values of a collection relation cell...
+    private int fanOut = 3;
+    private int relationRows = 200;
+    private int mediaRows = 0;
+    private String mediaField = "picture";
+    private int mediaSize = 64 * 1024;
+    private final Map<String, String> applicationArgs = new LinkedHashMap<>();
+
+    public static LoadOptions parse(String[] args) {
+        var options = new LoadOptions();
+        for (var arg : args) {
+            if (!StringUtils.startsWith(arg, "--") || !StringUtils.contains(arg, "=")) {
+                throw new IllegalArgumentException("Arguments must be given as --key=value : " + arg);
+            }
+            var key = StringUtils.substringBefore(arg, "=");
+            var value = StringUtils.substringAfter(arg, "=");
+            if (!StringUtils.startsWith(key, PREFIX)) {
+                options.applicationArgs.put(StringUtils.removeStart(key, "--"), value);
+                continue;
+            }
+
+            switch (StringUtils.removeStart(key, PREFIX)) {
+                case "itemType" -> options.itemType = value;
+                case "site" -> options.site = value;
+                case "rows" -> options.rows = Integer.parseInt(value);
+                case "iterations" -> options.iterations = Integer.parseInt(value);
+                case "columns" -> options.columns = Integer.parseInt(value);
+                case "languages" -> options.languages = List.of(StringUtils.split(value, ','));
+                case "localizedColumns" -> options.localizedColumns = Integer.parseInt(value);
+                case "relations" -> options.relations = Integer.parseInt(value);
+                case "fanOut" -> options.fanOut = Integer.parseInt(value);
+                case "relationRows" -> options.relationRows = Integer.parseInt(value);
+                case "mediaRows" -> options.mediaRows = Integer.parseInt(value);
+                case "mediaField" -> options.mediaField = value;
+                case "mediaSize" -> options.mediaSize = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown load option : " + key);
+            }
+        }
+        if (options.mediaRows > options.rows) {
+            throw new IllegalArgumentException("Media rows can not be more than the rows of the feed");
+        }
+        return options;
+    }
+}
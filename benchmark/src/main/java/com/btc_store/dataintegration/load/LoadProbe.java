@@ -0,0 +1,116 @@
+package com.btc_store.dataintegration.load;
+
+import com.btc_store.dataintegration.metrics.ImportMetrics;
+import com.sun.management.ThreadMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.io.FileUtils;
+import org.hibernate.stat.Statistics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one feed import: wall time, phase latencies of {@link ImportMetrics}, hibernate statement counts,
+ * allocated bytes, peak heap and garbage collection. Counters are reset when a measurement begins.
+ */
+@RequiredArgsConstructor
+public class LoadProbe {
+
+    private static final List<String> PHASES = List.of(ImportMetrics.PHASE_PARSE, ImportMetrics.PHASE_LOOKUP,
+            ImportMetrics.PHASE_RELATION, ImportMetrics.PHASE_CONVERT, ImportMetrics.PHASE_PERSIST);
+
+    private final MeterRegistry meterRegistry;
+    private final Statistics statistics;
+    private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private long startTime;
+    private Map<Long, Long> allocatedBytes;
+    private long gcCount;
+    private long gcTime;
+
+    public void begin() {
+        //phase timers are registered again by the next import...
+        meterRegistry.clear();
+        statistics.clear();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        allocatedBytes = allocatedBytes();
+        gcCount = ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+        gcTime = ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * @return report of the measurement begun last
+     */
+    public String end(FeedGenerator.Feed feed, boolean isSuccess, String message) {
+        var elapsed = System.nanoTime() - startTime;
+        var report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%s : %s, %d rows in %.2f s, %.0f rows/s%n", feed.name(), isSuccess ? "SUCCESS" : "FAIL",
+                feed.rows(), elapsed / 1e9, feed.rows() * 1e9 / elapsed));
+        if (!isSuccess) {
+            report.append("  ").append(message).append(System.lineSeparator());
+        }
+
+        report.append(String.format(Locale.ROOT, "  %-10s %10s %10s %10s %10s %10s%n", "phase(ms)", "count", "p50", "p95", "p99", "max"));
+        for (var phase : PHASES) {
+            var timer = meterRegistry.find("dataintegration.import.phase").tag("phase", phase).timer();
+            if (Objects.isNull(timer) || timer.count() == 0) {
+                continue;
+            }
+            report.append(String.format(Locale.ROOT, "  %-10s %10d %10.3f %10.3f %10.3f %10.3f%n", phase, timer.count(),
+                    percentile(timer, 0.5), percentile(timer, 0.95), percentile(timer, 0.99), timer.max(TimeUnit.MILLISECONDS)));
+        }
+
+        report.append(String.format(Locale.ROOT, "  statements %d, queries %d, entity loads %d, inserts %d, updates %d, deletes %d, flushes %d%n",
+                statistics.getPrepareStatementCount(), statistics.getQueryExecutionCount(), statistics.getEntityLoadCount(),
+                statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(), statistics.getEntityDeleteCount(),
+                statistics.getFlushCount()));
+
+        var allocated = 0L;
+        for (var threadAllocation : allocatedBytes().entrySet()) {
+            allocated += threadAllocation.getValue() - allocatedBytes.getOrDefault(threadAllocation.getKey(), 0L);
+        }
+        var peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream().filter(p -> MemoryType.HEAP.equals(p.getType()))
+                .mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        report.append(String.format(Locale.ROOT, "  allocated %s (%s/row), peak heap %s, gc %d collections in %d ms%n",
+                FileUtils.byteCountToDisplaySize(allocated), FileUtils.byteCountToDisplaySize(allocated / Math.max(1, feed.rows())),
+                FileUtils.byteCountToDisplaySize(peakHeap),
+                ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum() - gcCount,
+                ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum() - gcTime));
+        return report.toString();
+    }
+
+    private double percentile(Timer timer, double percentile) {
+        for (var value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Threads which end before the measurement does are not counted, so allocation of short lived workers is missing.
+     */
+    private Map<Long, Long> allocatedBytes() {
+        var result = new HashMap<Long, Long>();
+        var threadIds = threadMXBean.getAllThreadIds();
+        var bytes = threadMXBean.getThreadAllocatedBytes(threadIds);
+        for (var i = 0; i < threadIds.length; i++) {
+            if (bytes[i] >= 0) {
+                result.put(threadIds[i], bytes[i]);
+            }
+        }
+        return result;
+    }
+}
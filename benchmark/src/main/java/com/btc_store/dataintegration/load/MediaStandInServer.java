@@ -0,0 +1,53 @@
+package com.btc_store.dataintegration.load;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local http server standing for the media urls of a feed. Every path is answered with generated bytes of the
+ * configured size; content depends on the path, so media deduplication does not skip any url.
+ */
+public class MediaStandInServer implements Closeable {
+
+    public static final String MEDIA_PATH = "/media/";
+
+    private final HttpServer server;
+    private final ExecutorService executorService = Executors.newFixedThreadPool(8);
+    @Getter
+    private final AtomicLong servedRequests = new AtomicLong();
+
+    public MediaStandInServer(int mediaSize) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(MEDIA_PATH, exchange -> {
+            var body = new byte[mediaSize];
+            new Random(exchange.getRequestURI().getPath().hashCode()).nextBytes(body);
+            exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, body.length);
+            try (var outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+            servedRequests.incrementAndGet();
+        });
+        server.setExecutor(executorService);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + MEDIA_PATH;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executorService.shutdownNow();
+    }
+}
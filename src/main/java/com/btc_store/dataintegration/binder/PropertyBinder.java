@@ -0,0 +1,53 @@
+package com.btc_store.dataintegration.binder;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Direct getter/setter pair of one bean property. Accessors are generated once by {@link PropertyBinders}, so binding
+ * a cell is a plain interface call without any reflection lookup.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class PropertyBinder {
+
+    private final String name;
+    private final Class<?> propertyType;
+    private final Type genericType;
+    private final Class<?> elementType;
+    @Getter(AccessLevel.NONE)
+    private final Function<Object, Object> getter;
+    @Getter(AccessLevel.NONE)
+    private final BiConsumer<Object, Object> setter;
+
+    public Object get(Object bean) {
+        return getter.apply(bean);
+    }
+
+    public void set(Object bean, Object value) {
+        if (Objects.isNull(setter)) {
+            throw new UnsupportedOperationException(String.format("%s property of %s is read only", name, bean.getClass().getSimpleName()));
+        }
+        setter.accept(bean, value);
+    }
+
+    public boolean isCollection() {
+        return Collection.class.isAssignableFrom(propertyType);
+    }
+
+    public boolean isSet() {
+        return Set.class.isAssignableFrom(propertyType);
+    }
+
+    public boolean isWritable() {
+        return Objects.nonNull(setter);
+    }
+}
@@ -0,0 +1,118 @@
+package com.btc_store.dataintegration.binder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.beanutils.PropertyUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Generates and caches {@link PropertyBinder}s per (bean class, property). Accessors are spun with
+ * {@link LambdaMetafactory}; if a class can not be linked that way the binder falls back to a plain method handle.
+ */
+@Slf4j
+public final class PropertyBinders {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<Map<String, Optional<PropertyBinder>>> BINDERS = new ClassValue<>() {
+        @Override
+        protected Map<String, Optional<PropertyBinder>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private PropertyBinders() {
+    }
+
+    /**
+     * @return binder of the given property or {@code null} when the class has no readable property with that name
+     */
+    public static PropertyBinder find(Class<?> beanClass, String propertyName) {
+        return BINDERS.get(beanClass).computeIfAbsent(propertyName, p -> Optional.ofNullable(create(beanClass, p))).orElse(null);
+    }
+
+    public static PropertyBinder get(Class<?> beanClass, String propertyName) throws NoSuchFieldException {
+        var binder = find(beanClass, propertyName);
+        if (Objects.isNull(binder)) {
+            throw new NoSuchFieldException(String.format("This field %s not contains on model %s...", propertyName, beanClass.getSimpleName()));
+        }
+        return binder;
+    }
+
+    private static PropertyBinder create(Class<?> beanClass, String propertyName) {
+        var descriptor = Arrays.stream(PropertyUtils.getPropertyDescriptors(beanClass))
+                .filter(d -> d.getName().equals(propertyName)).findFirst().orElse(null);
+        if (Objects.isNull(descriptor) || Objects.isNull(PropertyUtils.getReadMethod(descriptor))) {
+            return null;
+        }
+
+        var readMethod = PropertyUtils.getReadMethod(descriptor);
+        var writeMethod = PropertyUtils.getWriteMethod(descriptor);
+        try {
+            return new PropertyBinder(propertyName, readMethod.getReturnType(), readMethod.getGenericReturnType(),
+                    elementType(descriptor), getter(readMethod), Objects.isNull(writeMethod) ? null : setter(writeMethod));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(String.format("%s property of %s is not accessible", propertyName, beanClass.getSimpleName()), e);
+        }
+    }
+
+    private static Class<?> elementType(PropertyDescriptor descriptor) {
+        var genericType = PropertyUtils.getReadMethod(descriptor).getGenericReturnType();
+        if (genericType instanceof ParameterizedType parameterizedType
+                && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> elementClass) {
+            return elementClass;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method readMethod) throws IllegalAccessException {
+        var handle = LOOKUP.unreflect(readMethod);
+        try {
+            return (Function<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                    handle, handle.type().wrap()).getTarget().invoke();
+        } catch (Throwable e) {
+            log.debug("Getter {} could not be generated, method handle will be used", readMethod, e);
+            var genericHandle = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> invoke(genericHandle, bean);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method writeMethod) throws IllegalAccessException {
+        var handle = LOOKUP.unreflect(writeMethod);
+        try {
+            return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class, Object.class),
+                    handle, handle.type().wrap().changeReturnType(void.class)).getTarget().invoke();
+        } catch (Throwable e) {
+            log.debug("Setter {} could not be generated, method handle will be used", writeMethod, e);
+            var genericHandle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> invoke(genericHandle, bean, value);
+        }
+    }
+
+    private static Object invoke(MethodHandle handle, Object... arguments) {
+        try {
+            return handle.invokeWithArguments(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
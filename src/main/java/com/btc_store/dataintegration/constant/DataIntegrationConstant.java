@@ -7,6 +7,8 @@ public class DataIntegrationConstant {
 
     public static final String CODE_FIELD = "code[unique]";
     public static final String SITE_MODEL = "SiteModel";
+    //saves the feed and removes the records missing from it, it is run as a save import...
+    public static final String SYNC_PROCESS_TYPE = "Sync";
     public static final String HEART_BEAT = "/heart-beat";
     public static final String GIT = "/git";
     public static final String GIT_INFO = "/git-info";
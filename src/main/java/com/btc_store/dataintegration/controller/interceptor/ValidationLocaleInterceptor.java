@@ -5,8 +5,10 @@ import com.btc_store.service.user.UserService;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
 import util.Messages;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,7 +26,7 @@ public class ValidationLocaleInterceptor implements HandlerInterceptor {
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        var isoCode = request.getParameter("isoCode");
+        var isoCode = getIsoCode(request);
         if (StringUtils.isNotEmpty(isoCode) && !StringUtils.equalsIgnoreCase(isoCode, "null")) {
             Messages.setMessagesLocale(Locale.forLanguageTag(isoCode));
         } else if (StringUtils.startsWith(request.getHeader(AUTHORIZATION), "Bearer ")) {
@@ -40,6 +42,14 @@ public class ValidationLocaleInterceptor implements HandlerInterceptor {
         return true;
     }
 
+    protected String getIsoCode(HttpServletRequest request) {
+        //parameters of a multipart request are read from its query, reading its parts would consume the streamed body...
+        if (StringUtils.startsWithIgnoreCase(request.getContentType(), MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            return UriComponentsBuilder.newInstance().query(request.getQueryString()).build().getQueryParams().getFirst("isoCode");
+        }
+        return request.getParameter("isoCode");
+    }
+
     protected void setCurrentSiteLanguage(HttpServletRequest request) {
         var host = request.getHeader(HttpHeaders.HOST);
         var siteModel = siteService.getSiteModelByDomain(StringUtils.split(host, ":")[0]);
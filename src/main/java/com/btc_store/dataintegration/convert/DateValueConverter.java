@@ -0,0 +1,98 @@
+package com.btc_store.dataintegration.convert;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parses dates of a column with the first of the supported patterns matching the value. The matching pattern is
+ * remembered, so the following values of the column are parsed once with the same formatter; a value written with
+ * another pattern is still detected again.
+ */
+@Slf4j
+final class DateValueConverter implements ValueConverter {
+
+    //same order with the former patterns, day first patterns win for ambiguous values...
+    private static final List<DateTimeFormatter> FORMATTERS = List.of(
+            formatter("d.M.uuuu"), formatter("ddMMuuuu"), formatter("uuuuMMdd"), formatter("d.M.uuuu H:m"),
+            formatter("d.M.uuuu H:m:s"), formatter("d/M/uuuu"), formatter("d/M/uuuu H:m"), formatter("d/M/uuuu H:m:s"),
+            formatter("uuuuMMddHHmmss"), formatter("uuuuMMdd H:m:s"));
+
+    private final boolean nullable;
+    //index of the pattern detected by the last value, it is only a hint so races are harmless...
+    private volatile int detected = -1;
+
+    DateValueConverter(boolean nullable) {
+        this.nullable = nullable;
+    }
+
+    @Override
+    public Object convert(String value, Object model) throws ParseException {
+        if (StringUtils.isEmpty(value)) {
+            if (nullable) {
+                return null;
+            }
+            throw invalid(value);
+        }
+
+        var hint = detected;
+        if (hint >= 0) {
+            var date = parse(FORMATTERS.get(hint), value);
+            if (Objects.nonNull(date)) {
+                return date;
+            }
+        }
+        for (var index = 0; index < FORMATTERS.size(); index++) {
+            if (index == hint) {
+                continue;
+            }
+            var date = parse(FORMATTERS.get(index), value);
+            if (Objects.nonNull(date)) {
+                detected = index;
+                return date;
+            }
+        }
+        throw invalid(value);
+    }
+
+    /**
+     * @return parsed date or {@code null} when the value is not written with the pattern of the formatter
+     */
+    private Date parse(DateTimeFormatter formatter, String value) {
+        //unresolved parse does not throw, failing patterns stay cheap while the column is detected...
+        var position = new ParsePosition(0);
+        var parsed = formatter.parseUnresolved(value, position);
+        if (Objects.isNull(parsed) || position.getErrorIndex() >= 0 || position.getIndex() != value.length()) {
+            return null;
+        }
+        try {
+            var temporal = formatter.parse(value);
+            var dateTime = temporal.isSupported(ChronoField.HOUR_OF_DAY) ? LocalDateTime.from(temporal)
+                    : LocalDate.from(temporal).atStartOfDay();
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (RuntimeException e) {
+            //invalid day of month etc...
+            return null;
+        }
+    }
+
+    private ParseException invalid(String value) {
+        log.error("Given date {} is not valid.", value);
+        return new ParseException("Given date " + value + " is not valid", -1);
+    }
+
+    private static DateTimeFormatter formatter(String pattern) {
+        return DateTimeFormatter.ofPattern(pattern).withResolverStyle(ResolverStyle.STRICT);
+    }
+}
@@ -0,0 +1,16 @@
+package com.btc_store.dataintegration.convert;
+
+import java.text.ParseException;
+
+/**
+ * Converts a csv/json cell to the type of one property. Instances are resolved once per column by
+ * {@link ValueConverters} and shared between rows and threads.
+ */
+@FunctionalInterface
+public interface ValueConverter {
+
+    /**
+     * @param model model the value is set on, collections merged into the current value read it from the model
+     */
+    Object convert(String value, Object model) throws ParseException;
+}
@@ -0,0 +1,143 @@
+package com.btc_store.dataintegration.convert;
+
+import com.btc_store.dataintegration.binder.PropertyBinder;
+import com.btc_store.dataintegration.enums.MergeStrategyEnum;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of {@link ValueConverter}s. A converter is chosen once for a property by its type instead of switching on
+ * the type name for every cell.
+ * <p>
+ * Import engine converters are lenient: numbers which can not be parsed become zero. Media import converters are
+ * strict and convert empty values to {@code null}. Both share the same enum and date parsing.
+ */
+public final class ValueConverters {
+
+    private static final String SEMICOLON = ";";
+
+    //enum constants by their case insensitive names...
+    private static final ClassValue<Map<String, Object>> ENUM_CONSTANTS = new ClassValue<>() {
+        @Override
+        protected Map<String, Object> computeValue(Class<?> type) {
+            var constants = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
+            for (var constant : type.getEnumConstants()) {
+                constants.putIfAbsent(String.valueOf(constant), constant);
+            }
+            return Collections.unmodifiableMap(constants);
+        }
+    };
+
+    private static final Map<PropertyBinder, ValueConverter> STRICT_CONVERTERS = new ConcurrentHashMap<>();
+
+    private ValueConverters() {
+    }
+
+    /**
+     * @return lenient converter of the import engine for the given column
+     */
+    public static ValueConverter of(PropertyBinder binder, MergeStrategyEnum mergeStrategy) {
+        Class<?> type = binder.getPropertyType();
+        if (type.isEnum()) {
+            return enumConverter(type);
+        }
+
+        return switch (type.getSimpleName()) {
+            case "Double", "double" -> lenient(Double::valueOf, NumberUtils.DOUBLE_ZERO);
+            case "Integer", "int" -> lenient(Integer::valueOf, NumberUtils.INTEGER_ZERO);
+            case "Float", "float" -> lenient(Float::valueOf, NumberUtils.FLOAT_ZERO);
+            case "Long", "long" -> lenient(Long::valueOf, NumberUtils.LONG_ZERO);
+            case "boolean", "Boolean" -> (value, model) -> BooleanUtils.toBoolean(value);
+            case "BigDecimal" -> lenient(BigDecimal::new, BigDecimal.ZERO);
+            case "Date" -> new DateValueConverter(false);
+            case "Set", "List" -> collectionConverter(binder, mergeStrategy);
+            case "Duration" -> (value, model) -> Duration.parse(value);
+            default -> (value, model) -> value;
+        };
+    }
+
+    /**
+     * @return strict converter of the media import, empty values other than booleans are converted to {@code null}
+     */
+    public static ValueConverter strictOf(PropertyBinder binder) {
+        return STRICT_CONVERTERS.computeIfAbsent(binder, ValueConverters::createStrict);
+    }
+
+    private static ValueConverter createStrict(PropertyBinder binder) {
+        Class<?> type = binder.getPropertyType();
+        ValueConverter converter;
+        if (type.isEnum()) {
+            converter = enumConverter(type);
+        } else {
+            converter = switch (type.getSimpleName()) {
+                case "Double", "double" -> (value, model) -> Double.valueOf(value);
+                case "Integer", "int" -> (value, model) -> Integer.valueOf(value);
+                case "Float", "float" -> (value, model) -> Float.valueOf(value);
+                case "Long", "long" -> (value, model) -> Long.valueOf(value);
+                //boolean empty default false...
+                case "boolean", "Boolean" -> (value, model) -> BooleanUtils.toBoolean(value);
+                case "BigDecimal" -> (value, model) -> new BigDecimal(value);
+                case "Date" -> new DateValueConverter(true);
+                case "Set", "List" -> collectionConverter(binder, MergeStrategyEnum.OVERRIDE);
+                default -> (value, model) -> value;
+            };
+        }
+
+        if (StringUtils.equalsIgnoreCase(type.getSimpleName(), "boolean")) {
+            return converter;
+        }
+        var nonEmptyConverter = converter;
+        return (value, model) -> StringUtils.isEmpty(value) ? null : nonEmptyConverter.convert(value, model);
+    }
+
+    private static ValueConverter enumConverter(Class<?> type) {
+        var constants = ENUM_CONSTANTS.get(type);
+        return (value, model) -> {
+            var constant = Objects.isNull(value) ? null : constants.get(value);
+            if (Objects.isNull(constant)) {
+                throw new NoSuchFieldError();
+            }
+            return constant;
+        };
+    }
+
+    private static ValueConverter lenient(Function<String, Object> parser, Object defaultValue) {
+        return (value, model) -> {
+            try {
+                return parser.apply(value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueConverter collectionConverter(PropertyBinder binder, MergeStrategyEnum mergeStrategy) {
+        var elementType = Objects.isNull(binder.getElementType()) ? StringUtils.EMPTY : binder.getElementType().getName();
+        Function<String, Object> elementParser = switch (StringUtils.remove(elementType, "java.lang.")) {
+            case "Integer" -> Integer::valueOf;
+            case "Double" -> Double::valueOf;
+            default -> String::valueOf;
+        };
+        var isList = binder.getPropertyType().equals(List.class);
+        var isMerge = Objects.equals(mergeStrategy, MergeStrategyEnum.MERGE);
+
+        return (value, model) -> {
+            var values = Arrays.stream(StringUtils.split(value, SEMICOLON)).map(elementParser).collect(Collectors.toSet());
+            Collection<Object> records = isList ? new ArrayList<>() : new HashSet<>();
+            if (isMerge && Objects.nonNull(model)) {
+                records = Optional.ofNullable((Collection<Object>) binder.get(model)).orElse(records);
+            }
+            records.addAll(values);
+            return records;
+        };
+    }
+}
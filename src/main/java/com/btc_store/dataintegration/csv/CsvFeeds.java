@@ -0,0 +1,92 @@
+package com.btc_store.dataintegration.csv;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Csv feeds of a file given to the process folder: a csv file, a gzip compressed csv file or a zip archive of csv
+ * files. Compressed feeds are decompressed while they are read, nothing is extracted to disk. A feed is named like a
+ * csv file, {@code Save_Category.csv} is the feed of {@code Save_Category.csv.gz}; csv files of a zip archive are
+ * feeds in their archive order.
+ */
+public final class CsvFeeds {
+
+    public static final String CSV_EXTENSION = ".csv";
+    public static final String GZIP_EXTENSION = ".csv.gz";
+    public static final String ZIP_EXTENSION = ".zip";
+    //files of a folder which are read as feeds...
+    public static final String GLOB = "*.{csv,csv.gz,zip}";
+
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String MAC_FOLDER = "__MACOSX/";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CsvFeeds() {
+    }
+
+    @FunctionalInterface
+    public interface FeedReader {
+
+        /**
+         * @param inputStream content of the feed, it is closed by its file
+         * @return {@code false} when the next feeds of the file must not be read
+         */
+        boolean read(String feedName, InputStream inputStream) throws Exception;
+    }
+
+    public static boolean isFeed(String fileName) {
+        return StringUtils.endsWithAny(fileName, CSV_EXTENSION, GZIP_EXTENSION, ZIP_EXTENSION);
+    }
+
+    public static boolean isCompressed(String fileName) {
+        return StringUtils.endsWithAny(fileName, GZIP_EXTENSION, ZIP_EXTENSION);
+    }
+
+    /**
+     * Reads the feeds of the file one by one.
+     *
+     * @param fileName name of the file as it was given, a file in processing folder is prefixed with the time it was taken
+     * @return number of feeds read
+     */
+    public static int read(File file, String fileName, FeedReader reader) throws Exception {
+        if (StringUtils.endsWith(fileName, ZIP_EXTENSION)) {
+            return readZip(file, reader);
+        }
+        var isGzip = StringUtils.endsWith(fileName, GZIP_EXTENSION);
+        try (var inputStream = isGzip ? new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE) : new FileInputStream(file)) {
+            reader.read(isGzip ? StringUtils.removeEnd(fileName, GZIP_SUFFIX) : fileName, inputStream);
+        }
+        return 1;
+    }
+
+    private static int readZip(File file, FeedReader reader) throws Exception {
+        var count = 0;
+        try (var zipInputStream = new ZipInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8)) {
+            var entry = zipInputStream.getNextEntry();
+            for (; Objects.nonNull(entry); entry = zipInputStream.getNextEntry()) {
+                var feedName = FilenameUtils.getName(entry.getName());
+                //folders and hidden files of the archiving tools are not feeds...
+                if (entry.isDirectory() || !StringUtils.endsWith(feedName, CSV_EXTENSION) || StringUtils.startsWith(feedName, ".")
+                        || StringUtils.startsWith(entry.getName(), MAC_FOLDER)) {
+                    continue;
+                }
+                count++;
+                //a feed must not close the archive when its rows are read...
+                if (!reader.read(feedName, new CloseShieldInputStream(zipInputStream))) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+}
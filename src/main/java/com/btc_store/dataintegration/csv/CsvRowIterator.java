@@ -0,0 +1,151 @@
+package com.btc_store.dataintegration.csv;
+
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.dataintegration.row.RowHeader;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Reads csv rows one by one, so a file is never loaded into memory at once. Every row shares the {@link RowHeader}
+ * of the file and keeps its values in header order. Rows are read by opencsv from a reader or by
+ * {@link MappedCsvReader} from a file.
+ */
+public class CsvRowIterator implements Iterator<Row>, Closeable {
+
+    public static final String COMMENT_COLUMN = "csv-comment-line";
+    private static final String COLUMN_COUNT_MESSAGE = "The number of data elements is not the same as the number of header elements";
+
+    private final CSVReader reader;
+    private final MappedCsvReader mappedReader;
+    //header of the file without the comment column, null when the file is empty...
+    private final RowHeader header;
+    //column of the file every header column is read from...
+    private final int[] columns;
+    private final int fileColumnCount;
+    private Row next;
+
+    public CsvRowIterator(Reader reader) throws IOException {
+        this.reader = new CSVReader(reader);
+        this.mappedReader = null;
+        String[] headers;
+        try {
+            headers = this.reader.readNext();
+        } catch (CsvValidationException e) {
+            throw new IOException("Csv header is not valid : " + e.getMessage(), e);
+        }
+        this.fileColumnCount = Objects.isNull(headers) ? 0 : headers.length;
+        this.columns = columnsOf(headers);
+        this.header = headerOf(headers, columns);
+    }
+
+    /**
+     * Reads the utf-8 file by {@link MappedCsvReader}, the comment column is never decoded.
+     */
+    public CsvRowIterator(Path path) throws IOException {
+        this.reader = null;
+        this.mappedReader = new MappedCsvReader(path);
+        var headers = mappedReader.getHeaders();
+        this.fileColumnCount = Objects.isNull(headers) ? 0 : headers.length;
+        this.columns = columnsOf(headers);
+        this.header = headerOf(headers, columns);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.isNull(next)) {
+            next = readRow();
+        }
+        return Objects.nonNull(next);
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var row = next;
+        next = null;
+        return row;
+    }
+
+    private Row readRow() {
+        if (Objects.isNull(header)) {
+            return null;
+        }
+        try {
+            if (Objects.nonNull(mappedReader)) {
+                return readMappedRow();
+            }
+            var values = reader.readNext();
+            if (Objects.isNull(values)) {
+                return null;
+            }
+            if (values.length != fileColumnCount) {
+                throw new CsvValidationException(COLUMN_COUNT_MESSAGE);
+            }
+            //values are kept as they are read when there is no comment column...
+            if (columns.length == fileColumnCount) {
+                return new Row(header, values);
+            }
+            var rowValues = new String[columns.length];
+            for (var i = 0; i < columns.length; i++) {
+                rowValues[i] = values[columns[i]];
+            }
+            return new Row(header, rowValues);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CsvValidationException e) {
+            throw new IllegalArgumentException("Csv row " + reader.getLinesRead() + " is not valid : " + e.getMessage(), e);
+        }
+    }
+
+    private Row readMappedRow() throws IOException {
+        if (!mappedReader.nextRow()) {
+            return null;
+        }
+        if (mappedReader.getColumnCount() != fileColumnCount) {
+            throw new IllegalArgumentException("Csv row " + mappedReader.getRowNumber() + " is not valid : " + COLUMN_COUNT_MESSAGE);
+        }
+        var values = new String[columns.length];
+        for (var i = 0; i < columns.length; i++) {
+            values[i] = mappedReader.value(columns[i]);
+        }
+        return new Row(header, values);
+    }
+
+    //csv dosyasından gelen csv-comment-line kolonu ignore edilir.
+    private static int[] columnsOf(String[] headers) {
+        if (Objects.isNull(headers)) {
+            return new int[0];
+        }
+        return IntStream.range(0, headers.length).filter(i -> !COMMENT_COLUMN.equals(headers[i])).toArray();
+    }
+
+    private static RowHeader headerOf(String[] headers, int[] columns) throws IOException {
+        if (Objects.isNull(headers)) {
+            return null;
+        }
+        try {
+            return RowHeader.of(Arrays.stream(columns).mapToObj(i -> headers[i]).toList());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Csv header is not valid : " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(mappedReader)) {
+            mappedReader.close();
+        } else {
+            reader.close();
+        }
+    }
+}
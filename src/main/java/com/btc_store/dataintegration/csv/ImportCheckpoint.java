@@ -0,0 +1,105 @@
+package com.btc_store.dataintegration.csv;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Last committed row of a file in the processing folder. It is kept next to the file as {@code <file>.checkpoint},
+ * so an import interrupted by a restart goes on after the rows which were already committed.
+ */
+@Getter
+@Slf4j
+public class ImportCheckpoint {
+
+    private static final String EXTENSION = ".checkpoint";
+    private static final String OFFSET = "offset";
+    private static final String LOG_CODE = "logCode";
+
+    private final Path path;
+    private int offset;
+    private String logCode;
+
+    private ImportCheckpoint(Path path, int offset, String logCode) {
+        this.path = path;
+        this.offset = offset;
+        this.logCode = logCode;
+    }
+
+    /**
+     * @return checkpoint of the given file, it starts from the first row when the file was never committed
+     */
+    public static ImportCheckpoint of(File file) {
+        var path = Path.of(file.getPath() + EXTENSION);
+        if (Files.notExists(path)) {
+            return new ImportCheckpoint(path, 0, null);
+        }
+
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            log.error("Checkpoint {} could not be read, file will be imported from the beginning...{}", path, ExceptionUtils.getMessage(e));
+            return new ImportCheckpoint(path, 0, null);
+        }
+        return new ImportCheckpoint(path, NumberUtils.toInt(properties.getProperty(OFFSET)),
+                StringUtils.defaultIfEmpty(properties.getProperty(LOG_CODE), null));
+    }
+
+    public boolean isResumed() {
+        return offset > 0 || Objects.nonNull(logCode);
+    }
+
+    public void setLogCode(String logCode) {
+        this.logCode = logCode;
+        write();
+    }
+
+    public void commit(int offset) {
+        this.offset = offset;
+        write();
+    }
+
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.error("Checkpoint {} could not be deleted...{}", path, ExceptionUtils.getMessage(e));
+        }
+    }
+
+    /**
+     * Written to a temporary file first, so a restart never sees a half written checkpoint.
+     */
+    private void write() {
+        var properties = new Properties();
+        properties.setProperty(OFFSET, String.valueOf(offset));
+        if (Objects.nonNull(logCode)) {
+            properties.setProperty(LOG_CODE, logCode);
+        }
+
+        var tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            //committed rows are imported again on resume, an upsert gives the same result...
+            log.error("Checkpoint {} could not be written at row {}...{}", path, offset, ExceptionUtils.getMessage(e));
+        }
+    }
+}
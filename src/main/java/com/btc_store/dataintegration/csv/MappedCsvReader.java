@@ -0,0 +1,266 @@
+package com.btc_store.dataintegration.csv;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Utf-8 csv reader working on a memory mapped file. Rows are tokenized in the mapped bytes, only the bounds of the
+ * cells are kept and a cell becomes a String when its value is asked by column index, so the columns which are not
+ * bound by the import are never decoded.
+ * <p>
+ * Rfc 4180 format is read: comma separated cells, quoted cells having doubled quotes and line breaks, {@code \n},
+ * {@code \r\n} or {@code \r} line ends. Byte order mark is skipped and blank lines are ignored. A file is mapped in
+ * windows, so files larger than 2 GB can be read while a row must be smaller than a window.
+ */
+public class MappedCsvReader implements Closeable {
+
+    private static final long WINDOW_SIZE = 1L << 28;
+    private static final byte SEPARATOR = ',';
+    private static final byte QUOTE = '"';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final byte SPACE = ' ';
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+
+    //bounds of the cells of the current row in the window, quoted cells having doubled quotes are marked as escaped...
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+    private int cellCount;
+    private byte[] scratch = new byte[256];
+
+    @Getter
+    private final String[] headers;
+    @Getter
+    private long rowNumber;
+
+    public MappedCsvReader(Path path) throws IOException {
+        this(path, WINDOW_SIZE);
+    }
+
+    //small windows are used by the tests to read rows crossing the window bounds...
+    MappedCsvReader(Path path, long windowSize) throws IOException {
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            map(0);
+            if (hasBom()) {
+                position = BOM.length;
+            }
+            this.headers = nextRow() ? values() : null;
+            rowNumber = 0;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next non blank row.
+     *
+     * @return {@code false} when the end of the file is reached
+     */
+    public boolean nextRow() throws IOException {
+        while (true) {
+            if (windowStart + position >= size) {
+                return false;
+            }
+            var rowStart = position;
+            if (tokenize()) {
+                rowNumber++;
+                if (cellCount > 1 || ends[0] > starts[0]) {
+                    return true;
+                }
+                continue;
+            }
+            //row goes on after the window, the window is moved to the start of the row...
+            if (rowStart == 0) {
+                throw new IllegalArgumentException("Csv row " + (rowNumber + 1) + " is larger than " + windowSize + " bytes");
+            }
+            map(windowStart + rowStart);
+        }
+    }
+
+    public int getColumnCount() {
+        return cellCount;
+    }
+
+    /**
+     * @return value of the column in the current row, trimmed the same way the import trims the values
+     */
+    public String value(int column) {
+        var start = starts[column];
+        var end = ends[column];
+        while (start < end && isWhitespace(window.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(window.get(end - 1))) {
+            end--;
+        }
+        var length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        if (!escaped[column]) {
+            window.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        //doubled quotes are written once...
+        var count = 0;
+        for (var i = start; i < end; i++) {
+            var b = window.get(i);
+            scratch[count++] = b;
+            if (b == QUOTE) {
+                i++;
+            }
+        }
+        return new String(scratch, 0, count, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return values of all columns of the current row
+     */
+    public String[] values() {
+        var values = new String[cellCount];
+        for (var i = 0; i < cellCount; i++) {
+            values[i] = value(i);
+        }
+        return values;
+    }
+
+    /**
+     * Tokenizes the row starting at the current position.
+     *
+     * @return {@code false} when the row is not complete in the window, position is not moved then
+     */
+    private boolean tokenize() {
+        var limit = window.limit();
+        var isLastWindow = windowStart + limit >= size;
+        var i = position;
+        cellCount = 0;
+        while (true) {
+            if (cellCount == starts.length) {
+                grow();
+            }
+            var isEscaped = false;
+            int start;
+            int end;
+            if (i < limit && window.get(i) == QUOTE) {
+                start = ++i;
+                while (true) {
+                    if (i >= limit) {
+                        if (isLastWindow) {
+                            throw new IllegalArgumentException("Csv row " + (rowNumber + 1) + " has an unclosed quote");
+                        }
+                        return false;
+                    }
+                    if (window.get(i) == QUOTE) {
+                        if (i + 1 < limit && window.get(i + 1) == QUOTE) {
+                            isEscaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        if (i + 1 >= limit && !isLastWindow) {
+                            return false;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                end = i++;
+                if (i < limit && !isDelimiter(window.get(i))) {
+                    throw new IllegalArgumentException("Csv row " + (rowNumber + 1) + " has characters after a closing quote");
+                }
+            } else {
+                start = i;
+                while (i < limit && !isDelimiter(window.get(i))) {
+                    i++;
+                }
+                end = i;
+            }
+            starts[cellCount] = start;
+            ends[cellCount] = end;
+            escaped[cellCount] = isEscaped;
+            cellCount++;
+
+            if (i >= limit) {
+                if (!isLastWindow) {
+                    return false;
+                }
+                position = i;
+                return true;
+            }
+            var delimiter = window.get(i++);
+            if (delimiter == SEPARATOR) {
+                continue;
+            }
+            if (delimiter == CR) {
+                if (i >= limit && !isLastWindow) {
+                    return false;
+                }
+                if (i < limit && window.get(i) == LF) {
+                    i++;
+                }
+            }
+            position = i;
+            return true;
+        }
+    }
+
+    //bytes of multi byte utf-8 characters are negative, they are never trimmed...
+    private boolean isWhitespace(byte b) {
+        return b >= 0 && b <= SPACE;
+    }
+
+    private boolean isDelimiter(byte b) {
+        return b == SEPARATOR || b == LF || b == CR;
+    }
+
+    private boolean hasBom() {
+        if (window.limit() < BOM.length) {
+            return false;
+        }
+        for (var i = 0; i < BOM.length; i++) {
+            if (window.get(i) != BOM[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        starts = Arrays.copyOf(starts, starts.length * 2);
+        ends = Arrays.copyOf(ends, ends.length * 2);
+        escaped = Arrays.copyOf(escaped, escaped.length * 2);
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,80 @@
+package com.btc_store.dataintegration.csv;
+
+import com.btc_store.dataintegration.row.Row;
+import com.opencsv.CSVWriter;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Rows rejected by a continue on error import. They are written in the header format of the imported file, so the
+ * file can be imported again once its rows are fixed; reason of a row is written to the comment column which the
+ * import ignores. File is created with the first rejected row.
+ */
+@Slf4j
+public class RejectedRowWriter implements Closeable {
+
+    @Getter
+    private final Path path;
+    private final boolean append;
+    private CSVWriter writer;
+    private List<String> headers;
+    @Getter
+    private int count;
+
+    /**
+     * @param append rows are added to an existing file, when an interrupted import is resumed
+     */
+    public RejectedRowWriter(Path path, boolean append) {
+        this.path = path;
+        this.append = append;
+    }
+
+    public synchronized void reject(Row row, String reason) {
+        try {
+            if (Objects.isNull(writer)) {
+                open(row);
+            }
+            var line = new ArrayList<String>(headers.size() + 1);
+            headers.forEach(header -> line.add(row.get(header)));
+            line.add(reason);
+            writer.writeNext(line.toArray(String[]::new), false);
+            //rejected rows are kept even if the import is interrupted...
+            writer.flush();
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open(Row row) throws IOException {
+        headers = row.getHeader().getNames();
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        var isAppended = append && Files.exists(path);
+        writer = new CSVWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                isAppended ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        if (!isAppended) {
+            var header = new ArrayList<>(headers);
+            header.add(CsvRowIterator.COMMENT_COLUMN);
+            writer.writeNext(header.toArray(String[]::new), false);
+        }
+        log.info("Rejected rows are written to {}", path);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (Objects.nonNull(writer)) {
+            writer.close();
+        }
+    }
+}
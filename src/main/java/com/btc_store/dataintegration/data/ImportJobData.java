@@ -0,0 +1,19 @@
+package com.btc_store.dataintegration.data;
+
+import com.btc_store.domain.enums.DataIntegrationStatus;
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+public class ImportJobData {
+
+    private String code;
+    private String itemType;
+    private DataIntegrationStatus status;
+    private int processedRows;
+    private double rowsPerSecond;
+    private Date startDate;
+    private Date endDate;
+    private String description;
+}
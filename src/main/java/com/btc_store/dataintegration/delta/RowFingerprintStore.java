@@ -0,0 +1,312 @@
+package com.btc_store.dataintegration.delta;
+
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.domain.model.custom.SiteModel;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import util.StoreClassUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Fingerprints of the rows imported last per item type and site. A fingerprint is a 64 bit hash of the unique values
+ * of a row mapped to a 64 bit hash of the whole normalized row, so a row given again without any change can be
+ * skipped before it is looked up. Fingerprints are kept in {@code delta} folder of the upload path, one file per item
+ * type and site, and held in memory only while an import of the item type and site is running.
+ */
+@Component
+@Slf4j
+public class RowFingerprintStore {
+
+    private static final String GLOBAL = "global";
+    private static final char SEPARATOR = '\u0001';
+
+    @Value("${csv.file.upload.folder.path}")
+    private String defaultUploadPath;
+
+    private final Map<String, Fingerprints> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * @return fingerprints shared by every running import of the given item type and site, they must be given back
+     * by {@link #release(Fingerprints)}
+     */
+    public Fingerprints acquire(Class<?> itemType, SiteModel siteModel) {
+        var key = StoreClassUtils.getSimpleName(itemType) + "_" + (Objects.isNull(siteModel) ? GLOBAL : siteModel.getCode());
+        return fingerprints.compute(key, (k, loaded) -> {
+            var acquired = Objects.isNull(loaded) ? load(k) : loaded;
+            acquired.users++;
+            return acquired;
+        });
+    }
+
+    /**
+     * Writes the fingerprints to disk, they are dropped from memory once no running import uses them.
+     */
+    public void release(Fingerprints acquired) {
+        acquired.flush();
+        fingerprints.computeIfPresent(acquired.key, (k, loaded) -> --loaded.users > 0 ? loaded : null);
+    }
+
+    /**
+     * @return hash of the unique values of a row
+     */
+    public static long keyOf(List<String> uniqueValues) {
+        var hasher = Hashing.murmur3_128().newHasher();
+        for (var uniqueValue : uniqueValues) {
+            hasher.putString(StringUtils.defaultString(uniqueValue), StandardCharsets.UTF_8).putChar(SEPARATOR);
+        }
+        return hasher.hash().asLong();
+    }
+
+    /**
+     * @return hash of the trimmed values of a row in header name order, so column order of the feed does not matter
+     */
+    public static long hashOf(Row row) {
+        var header = row.getHeader();
+        var hasher = Hashing.murmur3_128().newHasher();
+        for (var position = 0; position < header.size(); position++) {
+            var index = header.sortedIndex(position);
+            hasher.putString(header.getName(index), StandardCharsets.UTF_8).putChar(SEPARATOR)
+                    .putString(StringUtils.defaultString(StringUtils.trim(row.get(index))), StandardCharsets.UTF_8).putChar(SEPARATOR);
+        }
+        return hasher.hash().asLong();
+    }
+
+    private Fingerprints load(String key) {
+        var file = fingerprintFile(key);
+        Fingerprints loaded = null;
+        if (Files.isRegularFile(file)) {
+            try (var inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                var size = inputStream.readInt();
+                loaded = new Fingerprints(key, file, size);
+                for (var i = 0; i < size; i++) {
+                    loaded.put(inputStream.readLong(), inputStream.readLong());
+                }
+            } catch (IOException e) {
+                //every row is imported once more and fingerprinted again...
+                log.error("Fingerprints {} could not be read...{}", key, ExceptionUtils.getMessage(e));
+                loaded = null;
+            }
+        }
+        if (Objects.isNull(loaded)) {
+            loaded = new Fingerprints(key, file, 0);
+        }
+        log.info("Fingerprints {} are loaded with {} rows", key, loaded.size);
+        return loaded;
+    }
+
+    private Path fingerprintFile(String key) {
+        var folder = Path.of(StringUtils.join(defaultUploadPath, "/delta/")).normalize();
+        try {
+            Files.createDirectories(folder);
+        } catch (IOException e) {
+            log.error("Fingerprint folder {} could not be created...{}", folder, ExceptionUtils.getMessage(e));
+        }
+        return folder.resolve(key + ".fp");
+    }
+
+    /**
+     * Row hashes of one item type and site. Hashes are changed only for committed rows and written to disk by
+     * {@link #flush()}.
+     * <p>
+     * Row keys and hashes are kept in {@code long} arrays of an open addressing table with linear probing, a row takes
+     * 16 bytes in a table kept at most three quarters full. Key {@code 0} marks an empty slot, the row whose key is
+     * {@code 0} is kept aside.
+     */
+    public static class Fingerprints {
+
+        private static final int MIN_CAPACITY = 1024;
+        private static final long EMPTY = 0L;
+
+        private final String key;
+        private final Path file;
+        private long[] keys;
+        private long[] hashes;
+        private int size;
+        private boolean hasEmptyKey;
+        private long emptyKeyHash;
+        //running imports using the fingerprints, changed only while the store computes the entry...
+        private int users;
+
+        private Fingerprints(String key, Path file, int expectedSize) {
+            this.key = key;
+            this.file = file;
+            var capacity = capacityFor(expectedSize);
+            this.keys = new long[capacity];
+            this.hashes = new long[capacity];
+        }
+
+        public synchronized boolean isUnchanged(long rowKey, long rowHash) {
+            if (rowKey == EMPTY) {
+                return hasEmptyKey && emptyKeyHash == rowHash;
+            }
+            var slot = find(rowKey);
+            return keys[slot] == rowKey && hashes[slot] == rowHash;
+        }
+
+        public synchronized void commit(Map<Long, Long> committedHashes) {
+            committedHashes.forEach(this::put);
+        }
+
+        /**
+         * Removed rows must be imported again when they are given once more.
+         */
+        public synchronized void evict(Iterable<Long> rowKeys) {
+            rowKeys.forEach(this::remove);
+        }
+
+        /**
+         * Rows which are not kept are imported again when they are given once more.
+         */
+        public synchronized void retain(LongPredicate isKept) {
+            var oldKeys = keys;
+            var oldHashes = hashes;
+            keys = new long[oldKeys.length];
+            hashes = new long[oldHashes.length];
+            size = 0;
+            if (hasEmptyKey) {
+                hasEmptyKey = false;
+                if (isKept.test(EMPTY)) {
+                    put(EMPTY, emptyKeyHash);
+                }
+            }
+            for (var slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY && isKept.test(oldKeys[slot])) {
+                    put(oldKeys[slot], oldHashes[slot]);
+                }
+            }
+        }
+
+        /**
+         * Written to a temporary file first, so a restart never sees half written fingerprints.
+         */
+        public synchronized void flush() {
+            var tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                try (var outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    outputStream.writeInt(size);
+                    if (hasEmptyKey) {
+                        outputStream.writeLong(EMPTY);
+                        outputStream.writeLong(emptyKeyHash);
+                    }
+                    for (var slot = 0; slot < keys.length; slot++) {
+                        if (keys[slot] != EMPTY) {
+                            outputStream.writeLong(keys[slot]);
+                            outputStream.writeLong(hashes[slot]);
+                        }
+                    }
+                }
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.error("Fingerprints {} could not be written...{}", key, ExceptionUtils.getMessage(e));
+            }
+        }
+
+        private void put(long rowKey, long rowHash) {
+            if (rowKey == EMPTY) {
+                if (!hasEmptyKey) {
+                    hasEmptyKey = true;
+                    size++;
+                }
+                emptyKeyHash = rowHash;
+                return;
+            }
+            var slot = find(rowKey);
+            if (keys[slot] == rowKey) {
+                hashes[slot] = rowHash;
+                return;
+            }
+            keys[slot] = rowKey;
+            hashes[slot] = rowHash;
+            //table is kept at most three quarters full...
+            if (++size * 4L > keys.length * 3L) {
+                resize(keys.length * 2);
+            }
+        }
+
+        private void remove(long rowKey) {
+            if (rowKey == EMPTY) {
+                if (hasEmptyKey) {
+                    hasEmptyKey = false;
+                    size--;
+                }
+                return;
+            }
+            var slot = find(rowKey);
+            if (keys[slot] != rowKey) {
+                return;
+            }
+            //later keys of the probe sequence are shifted back into the gap, so no key is cut off from its home slot...
+            var mask = keys.length - 1;
+            var gap = slot;
+            var next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (keys[next] == EMPTY) {
+                    break;
+                }
+                var home = homeOf(keys[next]);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    hashes[gap] = hashes[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = EMPTY;
+            hashes[gap] = 0L;
+            size--;
+        }
+
+        /**
+         * @return slot of the key or the empty slot it would be put into
+         */
+        private int find(long rowKey) {
+            var mask = keys.length - 1;
+            var slot = homeOf(rowKey);
+            while (keys[slot] != EMPTY && keys[slot] != rowKey) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private int homeOf(long rowKey) {
+            var mixed = rowKey * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & (keys.length - 1);
+        }
+
+        private void resize(int capacity) {
+            var oldKeys = keys;
+            var oldHashes = hashes;
+            keys = new long[capacity];
+            hashes = new long[capacity];
+            for (var slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY) {
+                    var newSlot = find(oldKeys[slot]);
+                    keys[newSlot] = oldKeys[slot];
+                    hashes[newSlot] = oldHashes[slot];
+                }
+            }
+        }
+
+        private static int capacityFor(int expectedSize) {
+            var capacity = MIN_CAPACITY;
+            while (capacity * 3L < expectedSize * 4L) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+    }
+}
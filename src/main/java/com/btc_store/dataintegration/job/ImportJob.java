@@ -0,0 +1,44 @@
+package com.btc_store.dataintegration.job;
+
+import com.btc_store.domain.enums.DataIntegrationStatus;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Live progress of an asynchronous import. Its final state is also kept on the log model of the same code.
+ */
+@Getter
+public class ImportJob {
+
+    private final String code;
+    private final String itemType;
+    private final Date startDate = new Date();
+    private final long startNanos = System.nanoTime();
+    private volatile DataIntegrationStatus status = DataIntegrationStatus.PROCESSING;
+    private volatile int processedRows;
+    private volatile String description;
+    private volatile Date endDate;
+    private volatile long endNanos;
+
+    public ImportJob(String code, String itemType) {
+        this.code = code;
+        this.itemType = itemType;
+    }
+
+    public void setProcessedRows(int processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public void finish(DataIntegrationStatus status, String description) {
+        this.endNanos = System.nanoTime();
+        this.endDate = new Date();
+        this.description = description;
+        this.status = status;
+    }
+
+    public double getRowsPerSecond() {
+        var elapsedNanos = (DataIntegrationStatus.PROCESSING.equals(status) ? System.nanoTime() : endNanos) - startNanos;
+        return elapsedNanos <= 0 ? 0 : processedRows * 1_000_000_000d / elapsedNanos;
+    }
+}
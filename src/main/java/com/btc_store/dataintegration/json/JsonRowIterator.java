@@ -0,0 +1,98 @@
+package com.btc_store.dataintegration.json;
+
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.dataintegration.row.RowHeader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Reads a json array of row objects one row at a time, so a request body is never held in memory as a whole.
+ * Consecutive objects having the same fields in the same order share one {@link RowHeader}.
+ */
+public class JsonRowIterator implements Iterator<Row>, Closeable {
+
+    private final JsonParser parser;
+    private final List<String> names = new ArrayList<>();
+    private final List<String> values = new ArrayList<>();
+    private RowHeader header;
+    private Row next;
+    private boolean finished;
+
+    public JsonRowIterator(ObjectMapper objectMapper, InputStream inputStream) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(inputStream);
+        if (!JsonToken.START_ARRAY.equals(parser.nextToken())) {
+            throw new IllegalArgumentException("Json body must be an array of rows");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.isNull(next) && !finished) {
+            next = readRow();
+        }
+        return Objects.nonNull(next);
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var row = next;
+        next = null;
+        return row;
+    }
+
+    private Row readRow() {
+        try {
+            var token = parser.nextToken();
+            if (Objects.isNull(token) || JsonToken.END_ARRAY.equals(token)) {
+                finished = true;
+                return null;
+            }
+            if (!JsonToken.START_OBJECT.equals(token)) {
+                throw new IllegalArgumentException("Json row must be an object but found " + token + " at " + parser.getCurrentLocation());
+            }
+            names.clear();
+            values.clear();
+            while (JsonToken.FIELD_NAME.equals(parser.nextToken())) {
+                names.add(parser.getCurrentName());
+                //scalar values are read as text, the same way a string map is read...
+                if (parser.nextToken().isStructStart()) {
+                    throw new IllegalArgumentException("Json row values must be scalar but found " + parser.currentToken() + " at " + parser.getCurrentLocation());
+                }
+                values.add(parser.getValueAsString());
+            }
+            if (!isSameHeader()) {
+                header = RowHeader.of(names);
+            }
+            return new Row(header, values.toArray(String[]::new));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isSameHeader() {
+        if (Objects.isNull(header) || header.size() != names.size()) {
+            return false;
+        }
+        for (var i = 0; i < names.size(); i++) {
+            if (!header.getName(i).equals(names.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
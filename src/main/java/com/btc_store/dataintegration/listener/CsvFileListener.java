@@ -1,40 +1,378 @@
 package com.btc_store.dataintegration.listener;
 
+import com.btc_store.dataintegration.csv.CsvFeeds;
+import com.btc_store.dataintegration.csv.CsvRowIterator;
 import com.btc_store.dataintegration.service.FileImportService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Comparator;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static com.btc_store.dataintegration.constant.DataIntegrationConstant.CODE_FIELD;
+import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SITE_FIELD;
+
+/**
+ * Takes csv feeds from the process folder and imports them on a bounded pool. Files are grouped into lanes by the
+ * configured {@code csv.listener.lane.keys}; lanes run in parallel while files of the same lane are imported one by
+ * one in {@code lastModified} order. Besides csv files, {@code .csv.gz} files and zip archives of csv files are taken,
+ * see {@link CsvFeeds}.
+ * <p>
+ * New files are noticed by a {@link WatchService} on the process folder, polling finds the files a watch may miss. A
+ * file is taken once its size and modification time stay the same for {@code csv.listener.stable.millis} after it
+ * is first seen or a {@code <file>.done} marker is given, so files still being uploaded are not imported half
+ * written. Writers on other hosts should give markers, attributes of network shares may be cached for a while.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CsvFileListener {
 
+    private static final String UNDERSCORE = "_";
+    private static final String LANE_SEPARATOR = "|";
+    private static final String PROCESS_TYPE = "processType";
+    private static final String ITEM_TYPE = "itemType";
+    private static final String SITE = "site";
+    private static final String DONE_EXTENSION = ".done";
+    private static final long MIN_WATCH_WAIT_MILLIS = 100;
+
     @Value(value = "${csv.listener.process.folder.path}")
     private String processFolderPath;
 
+    @Value(value = "${csv.listener.processing.folder.path}")
+    private String processingFolderPath;
+
+    @Value(value = "${csv.listener.pool.size}")
+    private int poolSize;
+
+    @Value(value = "${csv.listener.lane.keys}")
+    private List<String> laneKeys;
+
+    @Value(value = "${csv.listener.watch.enabled}")
+    private boolean watchEnabled;
+
+    @Value(value = "${csv.listener.stable.millis}")
+    private long stableMillis;
+
+    private final AtomicBoolean resumePending = new AtomicBoolean(true);
+    //waiting files of the lanes having a running worker...
+    private final Map<String, Deque<File>> lanes = new HashMap<>();
+    //files taken from the process folder until their import ends, with the time they were last modified...
+    private final Map<File, Long> scheduledFiles = new ConcurrentHashMap<>();
+    //files of processing folder left by a previous run, they are resumed on their lanes...
+    private final Set<File> resumedFiles = ConcurrentHashMap.newKeySet();
+    //files seen in the process folder which are not taken yet...
+    private final Map<Path, Candidate> candidates = new ConcurrentHashMap<>();
+    private ExecutorService executorService;
+    private ExecutorService watcherService;
+
     protected final FileImportService fileImportService;
+    protected final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        executorService = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("csv-lane-"));
+        Gauge.builder("dataintegration.listener.pending.files", this, l -> l.candidates.size() + l.scheduledFiles.size())
+                .description("Csv files waiting in the process folder or being imported").register(meterRegistry);
+        Gauge.builder("dataintegration.listener.oldest.pending.age", this, CsvFileListener::oldestPendingAge)
+                .description("Age of the oldest csv file waiting in the process folder").baseUnit("seconds").register(meterRegistry);
+        if (BooleanUtils.isTrue(watchEnabled)) {
+            watcherService = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("csv-watcher-"));
+            watcherService.execute(this::watch);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (Objects.nonNull(watcherService)) {
+            watcherService.shutdownNow();
+        }
+        executorService.shutdown();
+    }
 
-    @Scheduled(fixedDelay = 10000, initialDelay = 1000)
+    @Scheduled(fixedDelayString = "${csv.listener.poll.interval.millis}", initialDelay = 1000)
     public void importCsvFileCron() {
-        var directoryName = Path.of(StringUtils.join(processFolderPath)).normalize().toString();
+        scan();
+        claimStableFiles();
+    }
+
+    /**
+     * Offers the changed files of the process folder until the listener is destroyed. Stable files are claimed after
+     * every event and at least every half of the stable time.
+     */
+    private void watch() {
+        var folder = processFolder();
+        try (var watchService = folder.getFileSystem().newWatchService()) {
+            folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            log.info("Process folder {} is watched for csv files", folder);
+            //files given before the watch was registered...
+            scan();
+            while (!Thread.currentThread().isInterrupted()) {
+                var key = watchService.poll(Math.max(MIN_WATCH_WAIT_MILLIS, stableMillis / 2), TimeUnit.MILLISECONDS);
+                if (Objects.nonNull(key)) {
+                    for (var event : key.pollEvents()) {
+                        if (StandardWatchEventKinds.OVERFLOW.equals(event.kind())) {
+                            scan();
+                        } else {
+                            offer(folder.resolve((Path) event.context()));
+                        }
+                    }
+                    if (!key.reset()) {
+                        log.warn("Process folder {} can not be watched anymore, files are taken by polling", folder);
+                        return;
+                    }
+                }
+                claimStableFiles();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Process folder {} could not be watched, files are taken by polling...{}", folder, ExceptionUtils.getMessage(e));
+        }
+    }
 
-        var files = FileUtils.listFiles(new File(directoryName), new String[]{"csv"}, false);
+    /**
+     * Offers every feed of the process folder, only feed entries are read from a folder of many files.
+     */
+    private void scan() {
+        try (var paths = Files.newDirectoryStream(processFolder(), CsvFeeds.GLOB)) {
+            paths.forEach(this::offer);
+        } catch (IOException e) {
+            log.error("Process folder could not be read...{}", ExceptionUtils.getMessage(e));
+        }
+    }
+
+    private void offer(Path path) {
+        var name = path.getFileName().toString();
+        //marker stands for the file it is given for...
+        if (StringUtils.endsWith(name, DONE_EXTENSION)) {
+            path = path.resolveSibling(StringUtils.removeEnd(name, DONE_EXTENSION));
+        }
+        if (!CsvFeeds.isFeed(path.getFileName().toString()) || scheduledFiles.containsKey(path.toFile())) {
+            return;
+        }
+        candidates.computeIfAbsent(path, p -> new Candidate(p.toFile()));
+    }
+
+    private synchronized void claimStableFiles() {
+        //files left in processing folder by a previous run are finished before new files are taken...
+        if (resumePending.compareAndSet(true, false)) {
+            resumeProcessingFiles();
+        }
+
+        var now = System.currentTimeMillis();
+        var stableFiles = new ArrayList<File>();
+        for (var iterator = candidates.entrySet().iterator(); iterator.hasNext(); ) {
+            var entry = iterator.next();
+            var file = entry.getKey().toFile();
+            if (!file.isFile()) {
+                iterator.remove();
+                continue;
+            }
+
+            var marker = new File(file.getPath() + DONE_EXTENSION);
+            if (marker.isFile() || entry.getValue().isStable(file.length(), file.lastModified(), now)) {
+                iterator.remove();
+                FileUtils.deleteQuietly(marker);
+                stableFiles.add(file);
+            }
+        }
 
         //last created file must be read lastly...
-        var processFiles = files
-                .stream().sorted(Comparator.comparing(File::lastModified)).collect(Collectors.toList());
+        stableFiles.stream().sorted(Comparator.comparing(File::lastModified)).forEach(this::schedule);
+    }
+
+    private void schedule(File file) {
+        //file stays in process folder until its worker moves it, it must not be queued again...
+        if (Objects.nonNull(scheduledFiles.putIfAbsent(file, file.lastModified()))) {
+            return;
+        }
+
+        var lane = laneOf(file);
+        synchronized (lanes) {
+            var waitingFiles = lanes.get(lane);
+            if (Objects.nonNull(waitingFiles)) {
+                waitingFiles.add(file);
+                return;
+            }
+            lanes.put(lane, new ArrayDeque<>(List.of(file)));
+        }
+        log.info("Lane {} is started with file {}", lane, file.getName());
+        executorService.execute(() -> importLane(lane));
+    }
+
+    private void importLane(String lane) {
+        while (true) {
+            File file;
+            synchronized (lanes) {
+                file = lanes.get(lane).poll();
+                if (Objects.isNull(file)) {
+                    lanes.remove(lane);
+                    return;
+                }
+            }
+
+            try {
+                if (resumedFiles.remove(file)) {
+                    fileImportService.resumeFile(file);
+                } else {
+                    fileImportService.importFile(file, true);
+                }
+            } catch (Exception e) {
+                log.error("Error occurred while {} file importing on lane {}...{}", file.getName(), lane, ExceptionUtils.getMessage(e));
+            } finally {
+                scheduledFiles.remove(file);
+            }
+        }
+    }
+
+    /**
+     * @return lane of the file built from the configured keys, all files share one lane when no key is given
+     */
+    private String laneOf(File file) {
+        //a zip archive takes the lane of its first feed...
+        var feedName = StringUtils.endsWith(file.getName(), CsvFeeds.ZIP_EXTENSION) ? firstFeedName(file) : file.getName();
+        //files in processing folder are prefixed with the date they are taken...
+        if (resumedFiles.contains(file) && !StringUtils.endsWith(file.getName(), CsvFeeds.ZIP_EXTENSION)) {
+            feedName = StringUtils.substringAfter(feedName, UNDERSCORE);
+        }
+        var itemAndProcessType = StringUtils.split(StringUtils.substringBefore(feedName, "."), UNDERSCORE);
+        var processType = itemAndProcessType.length > 0 ? StringUtils.lowerCase(itemAndProcessType[0]) : StringUtils.EMPTY;
+        var itemType = itemAndProcessType.length > 1 ? StringUtils.lowerCase(itemAndProcessType[1]) : StringUtils.EMPTY;
+
+        var lane = new ArrayList<String>();
+        for (var laneKey : laneKeys) {
+            switch (StringUtils.trim(laneKey)) {
+                case PROCESS_TYPE -> lane.add(processType);
+                case ITEM_TYPE -> lane.add(itemType);
+                case SITE -> lane.add(readSiteCode(file, StringUtils.equals(itemType, SITE)));
+                case "" -> {
+                }
+                default -> throw new IllegalArgumentException("Lane key must be processType, itemType or site : " + laneKey);
+            }
+        }
+        return String.join(LANE_SEPARATOR, lane);
+    }
+
+    private String firstFeedName(File file) {
+        var feedName = new AtomicReference<>(StringUtils.EMPTY);
+        try {
+            CsvFeeds.read(file, file.getName(), (name, inputStream) -> {
+                feedName.set(name);
+                return false;
+            });
+        } catch (Exception e) {
+            //import of the file reports the error...
+            log.warn("Feeds of {} could not be read for its lane...{}", file.getName(), ExceptionUtils.getMessage(e));
+        }
+        return feedName.get();
+    }
+
+    private String readSiteCode(File file, boolean isSiteModel) {
+        var siteCode = new AtomicReference<>(StringUtils.EMPTY);
+        try {
+            //only the first row of the first feed is read, compressed feeds are not decompressed further...
+            CsvFeeds.read(file, file.getName(), (feedName, inputStream) -> {
+                try (var rows = new CsvRowIterator(new InputStreamReader(new BOMInputStream(inputStream), StandardCharsets.UTF_8))) {
+                    if (rows.hasNext()) {
+                        siteCode.set(StringUtils.defaultString(rows.next().get(isSiteModel ? CODE_FIELD : SITE_FIELD)));
+                    }
+                }
+                return false;
+            });
+        } catch (Exception e) {
+            //import of the file reports the error...
+            log.warn("Site of {} could not be read for its lane...{}", file.getName(), ExceptionUtils.getMessage(e));
+        }
+        return siteCode.get();
+    }
+
+    private double oldestPendingAge() {
+        var oldest = LongStream.concat(candidates.values().stream().mapToLong(c -> c.firstModified),
+                scheduledFiles.values().stream().mapToLong(Long::longValue)).min();
+        return oldest.isPresent() ? (System.currentTimeMillis() - oldest.getAsLong()) / 1000d : 0;
+    }
+
+    private Path processFolder() {
+        return Path.of(StringUtils.join(processFolderPath)).normalize();
+    }
+
+    private void resumeProcessingFiles() {
+        var directory = Path.of(StringUtils.join(processingFolderPath)).normalize().toFile();
+        if (!directory.isDirectory()) {
+            return;
+        }
+
+        var files = FileUtils.listFiles(directory, null, false)
+                .stream().filter(file -> CsvFeeds.isFeed(file.getName())).sorted(Comparator.comparing(File::lastModified)).collect(Collectors.toList());
+        if (!files.isEmpty()) {
+            log.info("{} interrupted file(s) found in processing folder, resuming...", files.size());
+        }
+        //interrupted files are queued first on their lanes, the listener does not wait for them...
+        files.forEach(file -> {
+            resumedFiles.add(file);
+            schedule(file);
+        });
+    }
+
+    /**
+     * Size and modification time of a file when it was last looked at.
+     */
+    private class Candidate {
+
+        private final long firstModified;
+        private long size;
+        private long lastModified;
+        private long changedAt;
 
-        processFiles.forEach(processFile -> fileImportService.importFile(processFile, true));
+        private Candidate(File file) {
+            this.size = file.length();
+            this.lastModified = file.lastModified();
+            this.firstModified = lastModified;
+            //attributes of a network share may be cached, so a file is taken only after it is seen unchanged once more...
+            this.changedAt = System.currentTimeMillis();
+        }
 
+        /**
+         * @return {@code true} when the file did not change for the stable time, an empty file is taken too and its import
+         * fails it
+         */
+        private boolean isStable(long size, long lastModified, long now) {
+            if (size != this.size || lastModified != this.lastModified) {
+                this.size = size;
+                this.lastModified = lastModified;
+                this.changedAt = now;
+                return false;
+            }
+            return now - changedAt >= stableMillis;
+        }
     }
 }
@@ -0,0 +1,71 @@
+package com.btc_store.dataintegration.lookup;
+
+import com.btc_store.domain.model.custom.extend.ItemModel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Query parameters of a model lookup usable as a hash key. Model values (site, resolved relations) are compared by
+ * identity, so building a key never touches entity equals/hashCode or their lazy associations.
+ */
+public final class LookupKey {
+
+    private final Map<String, Object> params;
+    private final int hash;
+
+    public LookupKey(Map<String, Object> params) {
+        this.params = Collections.unmodifiableMap(new HashMap<>(params));
+        var paramsHash = 0;
+        for (var entry : this.params.entrySet()) {
+            paramsHash += entry.getKey().hashCode() ^ valueHash(entry.getValue());
+        }
+        this.hash = paramsHash;
+    }
+
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LookupKey other) || hash != other.hash || params.size() != other.params.size()) {
+            return false;
+        }
+        for (var entry : params.entrySet()) {
+            if (!other.params.containsKey(entry.getKey()) || !valueEquals(entry.getValue(), other.params.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        var printable = new StringBuilder("{");
+        params.forEach((name, value) -> {
+            if (!(value instanceof ItemModel)) {
+                printable.append(printable.length() > 1 ? "," : "").append(name).append('=').append(value);
+            }
+        });
+        return printable.append('}').toString();
+    }
+
+    private static int valueHash(Object value) {
+        return value instanceof ItemModel ? System.identityHashCode(value) : Objects.hashCode(value);
+    }
+
+    private static boolean valueEquals(Object value, Object other) {
+        return value instanceof ItemModel || other instanceof ItemModel ? value == other : Objects.equals(value, other);
+    }
+}
@@ -0,0 +1,34 @@
+package com.btc_store.dataintegration.lookup;
+
+import com.btc_store.domain.model.custom.extend.ItemModel;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-only relation values of one import resolved up front, keyed by target type and the query parameters
+ * (code, version, site...) exactly as they are built while converting a row.
+ */
+public final class ReferenceDictionary {
+
+    private final Map<Pair<Class<?>, LookupKey>, ItemModel> references;
+
+    public ReferenceDictionary(Map<Pair<Class<?>, LookupKey>, ItemModel> references) {
+        this.references = Map.copyOf(references);
+    }
+
+    public ItemModel get(Class<?> type, Map<String, Object> params) {
+        var key = new LookupKey(params);
+        var model = references.get(new ImmutablePair<Class<?>, LookupKey>(type, key));
+        if (Objects.isNull(model)) {
+            throw new IllegalStateException(String.format("%s%s was not resolved before conversion", type.getSimpleName(), key));
+        }
+        return model;
+    }
+
+    public int size() {
+        return references.size();
+    }
+}
@@ -0,0 +1,171 @@
+package com.btc_store.dataintegration.media;
+
+import com.btc_store.domain.enums.SearchOperator;
+import com.btc_store.domain.model.custom.MediaModel;
+import com.btc_store.domain.model.custom.SiteModel;
+import com.btc_store.service.SearchService;
+import com.btc_store.service.exception.model.ModelNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content hash to media index per site and secure flag, so a file imported again is bound to the media stored for it
+ * before instead of being stored once more. Entries are kept in {@code media-index} folder of the upload path as
+ * {@code hash;mediaCode} lines, one file per site and secure flag. An evicted media is written as a
+ * {@code -;mediaCode} line, so it is not bound again after a restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MediaContentIndex {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String SEPARATOR = ";";
+    private static final String GLOBAL = "global";
+    private static final String EVICTED = "-";
+    private static final String DELETED_FIELD = "deleted";
+
+    @Value("${csv.file.upload.folder.path}")
+    private String defaultUploadPath;
+
+    private final Map<String, Map<String, String>> indexes = new ConcurrentHashMap<>();
+
+    protected final SearchService searchService;
+
+    public static DigestInputStream digest(InputStream inputStream) {
+        try {
+            return new DigestInputStream(inputStream, MessageDigest.getInstance(DIGEST_ALGORITHM));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return hex content hash of a stream read through {@link #digest(InputStream)}
+     */
+    public static String hashOf(DigestInputStream inputStream) {
+        return HexFormat.of().formatHex(inputStream.getMessageDigest().digest());
+    }
+
+    public static String hashOf(Path path) throws IOException {
+        try (var inputStream = digest(Files.newInputStream(path))) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+            return hashOf(inputStream);
+        }
+    }
+
+    /**
+     * @return media stored before with the same content or empty when it is unknown, deleted or not found anymore
+     */
+    public Optional<MediaModel> find(String hash, SiteModel siteModel, boolean secure) {
+        var index = indexOf(siteModel, secure);
+        var code = index.get(hash);
+        if (Objects.isNull(code)) {
+            return Optional.empty();
+        }
+
+        var query = new HashMap<>();
+        query.put("code", code);
+        query.put(DELETED_FIELD, Boolean.FALSE);
+        if (Objects.nonNull(siteModel)) {
+            query.put("site", siteModel);
+        }
+        try {
+            return Optional.of(searchService.searchSingleResult(MediaModel.class, query, SearchOperator.AND));
+        } catch (ModelNotFoundException e) {
+            evict(keyOf(siteModel, secure), code);
+            return Optional.empty();
+        }
+    }
+
+    public void register(String hash, SiteModel siteModel, boolean secure, MediaModel mediaModel) {
+        var key = keyOf(siteModel, secure);
+        indexOf(siteModel, secure).put(hash, mediaModel.getCode());
+        append(key, hash, mediaModel.getCode());
+    }
+
+    /**
+     * Media which is not used anymore must not be bound for new rows.
+     */
+    public void evict(SiteModel siteModel, boolean secure, MediaModel mediaModel) {
+        evict(keyOf(siteModel, secure), mediaModel.getCode());
+    }
+
+    private void evict(String key, String mediaCode) {
+        if (indexes.computeIfAbsent(key, this::load).values().removeIf(code -> StringUtils.equals(code, mediaCode))) {
+            append(key, EVICTED, mediaCode);
+        }
+    }
+
+    private void append(String key, String hash, String mediaCode) {
+        synchronized (indexes) {
+            try {
+                Files.writeString(indexFile(key), hash + SEPARATOR + mediaCode + System.lineSeparator(),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.error("Media index {} could not be written...{}", key, ExceptionUtils.getMessage(e));
+            }
+        }
+    }
+
+    private Map<String, String> indexOf(SiteModel siteModel, boolean secure) {
+        return indexes.computeIfAbsent(keyOf(siteModel, secure), this::load);
+    }
+
+    private Map<String, String> load(String key) {
+        var index = new ConcurrentHashMap<String, String>();
+        var indexFile = indexFile(key);
+        if (Files.isRegularFile(indexFile)) {
+            try (var lines = Files.lines(indexFile, StandardCharsets.UTF_8)) {
+                //later lines are newer media of the same content, an evicted media is removed from the lines before it...
+                lines.map(l -> StringUtils.split(l, SEPARATOR)).filter(l -> l.length == 2).forEach(l -> {
+                    if (StringUtils.equals(l[0], EVICTED)) {
+                        index.values().removeIf(code -> StringUtils.equals(code, l[1]));
+                    } else {
+                        index.put(l[0], l[1]);
+                    }
+                });
+            } catch (IOException e) {
+                log.error("Media index {} could not be read...{}", key, ExceptionUtils.getMessage(e));
+            }
+        }
+        log.info("Media index {} is loaded with {} entries", key, index.size());
+        return index;
+    }
+
+    private Path indexFile(String key) {
+        var folder = Path.of(StringUtils.join(defaultUploadPath, "/media-index/")).normalize();
+        try {
+            Files.createDirectories(folder);
+        } catch (IOException e) {
+            log.error("Media index folder {} could not be created...{}", folder, ExceptionUtils.getMessage(e));
+        }
+        return folder.resolve(key + ".idx");
+    }
+
+    private String keyOf(SiteModel siteModel, boolean secure) {
+        var site = Objects.isNull(siteModel) ? GLOBAL : siteModel.getCode();
+        return site + "_" + (secure ? "secure" : "public");
+    }
+}
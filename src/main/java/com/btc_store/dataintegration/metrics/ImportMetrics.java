@@ -0,0 +1,117 @@
+package com.btc_store.dataintegration.metrics;
+
+import com.btc_store.domain.enums.ImportProcessType;
+import com.btc_store.domain.model.custom.SiteModel;
+import io.micrometer.core.instrument.*;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+import util.StoreClassUtils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Micrometer meters of the import engine. Phase timers share the {@code dataintegration.import.phase} name and are
+ * told apart by the {@code phase} tag; every meter is tagged by item type, site and process type.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportMetrics {
+
+    public static final String PHASE_PARSE = "parse";
+    public static final String PHASE_LOOKUP = "lookup";
+    public static final String PHASE_RELATION = "relation";
+    public static final String PHASE_CONVERT = "convert";
+    public static final String PHASE_PERSIST = "persist";
+
+    private static final String PHASE_TIMER = "dataintegration.import.phase";
+    private static final String ROWS_COUNTER = "dataintegration.import.rows";
+    private static final String ROWS_PER_SECOND = "dataintegration.import.rows.per.second";
+    private static final String MEDIA_BYTES = "dataintegration.media.bytes";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public Tags tags(Class<?> itemType, SiteModel siteModel, ImportProcessType importProcessType) {
+        return tags(itemType, siteModel, Objects.isNull(importProcessType) ? null : importProcessType.getValue());
+    }
+
+    public Tags tags(Class<?> itemType, SiteModel siteModel, String processType) {
+        return Tags.of("itemType", Objects.isNull(itemType) ? NONE : StoreClassUtils.getSimpleName(itemType),
+                "site", Objects.isNull(siteModel) ? NONE : StringUtils.defaultIfEmpty(siteModel.getCode(), NONE),
+                "processType", StringUtils.defaultIfEmpty(StringUtils.lowerCase(processType), NONE));
+    }
+
+    public Timer phase(String phase, Tags tags) {
+        return Timer.builder(PHASE_TIMER).description("Time spent in an import phase").tag("phase", phase).tags(tags)
+                .register(meterRegistry);
+    }
+
+    public <T> T time(String phase, Tags tags, Callable<T> callable) throws Exception {
+        return phase(phase, tags).recordCallable(callable);
+    }
+
+    /**
+     * @return iterator recording the time spent reading every row as parse time
+     */
+    public <T> Iterator<T> timeParse(Iterator<T> rows, Tags tags) {
+        var timer = phase(PHASE_PARSE, tags);
+        return new Iterator<>() {
+            private long elapsed;
+
+            @Override
+            public boolean hasNext() {
+                var start = System.nanoTime();
+                try {
+                    return rows.hasNext();
+                } finally {
+                    elapsed += System.nanoTime() - start;
+                }
+            }
+
+            @Override
+            public T next() {
+                var start = System.nanoTime();
+                try {
+                    return rows.next();
+                } finally {
+                    //time of the preceding hasNext belongs to the same row...
+                    timer.record(Duration.ofNanos(elapsed + System.nanoTime() - start));
+                    elapsed = 0;
+                }
+            }
+        };
+    }
+
+    /**
+     * @param failedRows rows which were read but not committed
+     */
+    public void rows(Tags tags, long importedRows, long failedRows, Duration duration) {
+        rows(tags, importedRows, 0, failedRows, duration);
+    }
+
+    /**
+     * @param skippedRows rows which were skipped by delta import as unchanged
+     * @param failedRows  rows which were read but neither committed nor skipped
+     */
+    public void rows(Tags tags, long importedRows, long skippedRows, long failedRows, Duration duration) {
+        Counter.builder(ROWS_COUNTER).tag("result", "imported").tags(tags).register(meterRegistry).increment(importedRows);
+        Counter.builder(ROWS_COUNTER).tag("result", "skipped").tags(tags).register(meterRegistry).increment(skippedRows);
+        Counter.builder(ROWS_COUNTER).tag("result", "failed").tags(tags).register(meterRegistry).increment(failedRows);
+        if (importedRows > 0 && !duration.isZero()) {
+            DistributionSummary.builder(ROWS_PER_SECOND).description("Committed rows per second of an import").tags(tags)
+                    .register(meterRegistry).record(importedRows * 1_000_000_000d / duration.toNanos());
+        }
+    }
+
+    /**
+     * @param direction {@code downloaded} for fetched urls, {@code stored} for files written as new media
+     */
+    public void mediaBytes(String direction, long bytes, Tags tags) {
+        DistributionSummary.builder(MEDIA_BYTES).baseUnit("bytes").tag("direction", direction).tags(tags)
+                .register(meterRegistry).record(bytes);
+    }
+}
@@ -0,0 +1,246 @@
+package com.btc_store.dataintegration.multipart;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads the parts of a {@code multipart/form-data} body one after the other straight from the request stream. A part
+ * is never buffered as a whole and nothing is written to disk, so the size of a part is not limited.
+ */
+public class MultipartReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final int MAX_HEADER_LENGTH = 8 * 1024;
+
+    public record Part(String name, String fileName, Map<String, String> headers, InputStream body) {
+    }
+
+    private final InputStream inputStream;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    //buffered bytes before this index are known not to start a delimiter, so they are never searched again...
+    private int scanned;
+    //index of the delimiter found in the buffer, -1 when it is not found yet...
+    private int delimiterIndex = -1;
+    private boolean endOfStream;
+    private boolean lastPart;
+    private PartInputStream currentPart;
+
+    public MultipartReader(InputStream inputStream, String boundary) {
+        if (StringUtils.isEmpty(boundary)) {
+            throw new IllegalArgumentException("Multipart boundary is missing");
+        }
+        this.inputStream = inputStream;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+        //first boundary is not preceded by a line break, one is put in front so every boundary looks the same...
+        System.arraycopy(CRLF, 0, buffer, 0, CRLF.length);
+        this.limit = CRLF.length;
+    }
+
+    /**
+     * Skips the rest of the current part.
+     *
+     * @return next part or {@code null} when the body has no more parts
+     */
+    public Part nextPart() throws IOException {
+        if (lastPart) {
+            return null;
+        }
+        if (Objects.isNull(currentPart)) {
+            //preamble before the first boundary is skipped...
+            currentPart = new PartInputStream();
+        }
+        currentPart.skipToEnd();
+
+        //boundary is followed by -- on the last one or by a line break...
+        position += delimiter.length;
+        ensure(2);
+        if (buffer[position] == '-' && buffer[position + 1] == '-') {
+            lastPart = true;
+            return null;
+        }
+        skipLine();
+
+        var headers = new HashMap<String, String>();
+        String line;
+        while (StringUtils.isNotEmpty(line = readLine())) {
+            headers.put(StringUtils.lowerCase(StringUtils.trim(StringUtils.substringBefore(line, ":"))),
+                    StringUtils.trim(StringUtils.substringAfter(line, ":")));
+        }
+
+        var disposition = headers.get("content-disposition");
+        currentPart = new PartInputStream();
+        return new Part(dispositionParameter(disposition, "name"), dispositionParameter(disposition, "filename"), headers, currentPart);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private String dispositionParameter(String disposition, String parameter) {
+        for (var token : StringUtils.split(StringUtils.defaultString(disposition), ';')) {
+            var trimmed = StringUtils.trim(token);
+            if (StringUtils.startsWithIgnoreCase(trimmed, parameter + "=")) {
+                return StringUtils.strip(StringUtils.substringAfter(trimmed, "="), "\"");
+            }
+        }
+        return null;
+    }
+
+    private String readLine() throws IOException {
+        var line = new ByteArrayOutputStream();
+        while (true) {
+            ensure(1);
+            var b = buffer[position++];
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+            if (line.size() > MAX_HEADER_LENGTH) {
+                throw new IOException("Multipart header is too long");
+            }
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private void skipLine() throws IOException {
+        readLine();
+    }
+
+    /**
+     * Makes at least the given number of bytes available after the position.
+     */
+    private void ensure(int count) throws IOException {
+        while (limit - position < count) {
+            if (!fill()) {
+                throw new EOFException("Multipart body ended unexpectedly");
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            scanned = Math.max(0, scanned - position);
+            delimiterIndex = delimiterIndex >= position ? delimiterIndex - position : -1;
+            position = 0;
+        }
+        var read = inputStream.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfStream = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    /**
+     * Only the bytes buffered since the last search are searched.
+     *
+     * @return index of the delimiter in the buffered bytes or -1
+     */
+    private int indexOfDelimiter() {
+        if (delimiterIndex >= position) {
+            return delimiterIndex;
+        }
+        var from = Math.max(position, scanned);
+        outer:
+        for (var i = from; i <= limit - delimiter.length; i++) {
+            for (var j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            delimiterIndex = i;
+            return i;
+        }
+        scanned = Math.max(from, limit - delimiter.length + 1);
+        delimiterIndex = -1;
+        return -1;
+    }
+
+    private class PartInputStream extends InputStream {
+
+        private final byte[] single = new byte[1];
+        private boolean finished;
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            var available = buffered();
+            if (available < 0) {
+                return -1;
+            }
+            var count = Math.min(length, available);
+            System.arraycopy(buffer, position, bytes, offset, count);
+            position += count;
+            return count;
+        }
+
+        private void skipToEnd() throws IOException {
+            //part is not read by the caller, its bytes are dropped in the buffer...
+            while (!finished) {
+                var available = buffered();
+                if (available > 0) {
+                    position += available;
+                }
+            }
+        }
+
+        /**
+         * @return number of buffered bytes of the part, -1 when the part is finished
+         */
+        private int buffered() throws IOException {
+            while (true) {
+                var index = indexOfDelimiter();
+                if (index == position) {
+                    finished = true;
+                    return -1;
+                }
+                //bytes which can not be the beginning of a delimiter are safe to hand out...
+                var available = index >= 0 ? index - position : limit - position - (delimiter.length - 1);
+                if (available > 0) {
+                    return available;
+                }
+                if (!fill()) {
+                    throw new EOFException("Multipart body ended before the closing boundary");
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            //request stream is closed by the reader...
+        }
+    }
+}
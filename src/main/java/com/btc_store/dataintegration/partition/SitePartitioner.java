@@ -0,0 +1,206 @@
+package com.btc_store.dataintegration.partition;
+
+import com.btc_store.dataintegration.row.Row;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Splits rows by their site code while they are read and imports the rows of every site as a partition on its own
+ * thread. A partition is started with the first row of its site and takes its rows in read order through a bounded
+ * queue, so memory stays bounded by chunk size and queue capacity however large the source is; a full queue blocks the
+ * reader only until its partition takes the next chunk.
+ * <p>
+ * Partitions succeed or fail on their own: rows of a failed partition are dropped while the others go on. An error
+ * while reading fails every partition which is not finished yet. An instance runs a single import.
+ */
+@Slf4j
+public class SitePartitioner {
+
+    private static final long POLL_MILLIS = 100;
+
+    @FunctionalInterface
+    public interface PartitionImporter {
+
+        /**
+         * Imports the rows of a site, it is called on the thread of the partition.
+         */
+        Pair<Boolean, String> importPartition(String siteCode, Iterator<Row> rows) throws Exception;
+    }
+
+    private final String siteField;
+    private final int maxSites;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    public SitePartitioner(String siteField, int maxSites, int chunkSize, int queueCapacity) {
+        this.siteField = siteField;
+        this.maxSites = maxSites;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @return result of every site in the order the sites are read
+     */
+    public Map<String, Pair<Boolean, String>> run(Iterator<Row> rows, PartitionImporter importer) throws Exception {
+        //import user of the calling thread is kept on the partition threads...
+        var executorService = new DelegatingSecurityContextExecutorService(
+                Executors.newCachedThreadPool(new CustomizableThreadFactory("site-partition-")));
+        var partitions = new LinkedHashMap<String, Partition>();
+        try {
+            Exception readFailure = null;
+            try {
+                while (rows.hasNext()) {
+                    var row = rows.next();
+                    var siteCode = row.get(siteField);
+                    if (StringUtils.isEmpty(siteCode)) {
+                        throw new IllegalArgumentException(siteField.concat(" field must not be null"));
+                    }
+
+                    var partition = partitions.get(siteCode);
+                    if (Objects.isNull(partition)) {
+                        if (partitions.size() >= maxSites) {
+                            throw new IllegalArgumentException("Rows of more than " + maxSites + " sites can not be imported at once");
+                        }
+                        partition = new Partition(siteCode);
+                        partitions.put(siteCode, partition);
+                        var started = partition;
+                        partition.result = executorService.submit(() -> started.run(importer));
+                    }
+                    partition.add(row);
+                }
+            } catch (Exception e) {
+                log.error("Rows could not be partitioned by site...{}", e.getMessage());
+                readFailure = e;
+            }
+
+            if (Objects.nonNull(readFailure) && partitions.isEmpty()) {
+                throw readFailure;
+            }
+            for (var partition : partitions.values()) {
+                partition.finish(readFailure);
+            }
+            var results = new LinkedHashMap<String, Pair<Boolean, String>>();
+            for (var partition : partitions.values()) {
+                results.put(partition.siteCode, partition.await());
+            }
+            return results;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Rows of a site which are read but not imported yet. An empty chunk ends the rows.
+     */
+    private class Partition {
+
+        private final String siteCode;
+        private final BlockingQueue<List<Row>> chunks = new ArrayBlockingQueue<>(queueCapacity);
+        private List<Row> buffer = new ArrayList<>(chunkSize);
+        private volatile boolean isFinished;
+        private volatile Exception readFailure;
+        private Future<Pair<Boolean, String>> result;
+
+        private Partition(String siteCode) {
+            this.siteCode = siteCode;
+        }
+
+        private void add(Row row) throws InterruptedException {
+            //rows of a failed partition are dropped...
+            if (isFinished) {
+                return;
+            }
+            buffer.add(row);
+            if (buffer.size() >= chunkSize) {
+                offer(buffer);
+                buffer = new ArrayList<>(chunkSize);
+            }
+        }
+
+        private void finish(Exception readFailure) throws InterruptedException {
+            this.readFailure = readFailure;
+            if (!buffer.isEmpty()) {
+                offer(buffer);
+            }
+            offer(List.of());
+        }
+
+        private void offer(List<Row> chunk) throws InterruptedException {
+            while (!isFinished && !chunks.offer(chunk, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                //partition is still importing its previous chunks...
+            }
+        }
+
+        private Pair<Boolean, String> run(PartitionImporter importer) {
+            try {
+                return importer.importPartition(siteCode, new PartitionRows());
+            } catch (Exception e) {
+                log.error("Rows of site {} could not be imported...{}", siteCode, e.getMessage());
+                return new ImmutablePair<>(Boolean.FALSE, ExceptionUtils.getMessage(e));
+            } finally {
+                isFinished = true;
+            }
+        }
+
+        private Pair<Boolean, String> await() throws InterruptedException {
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                return new ImmutablePair<>(Boolean.FALSE, ExceptionUtils.getMessage(e.getCause()));
+            }
+        }
+
+        private class PartitionRows implements Iterator<Row> {
+
+            private Iterator<Row> chunk = Collections.emptyIterator();
+            private boolean isEnded;
+
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext() && !isEnded) {
+                    List<Row> next;
+                    try {
+                        next = chunks.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Site partition is stopped");
+                    }
+                    if (next.isEmpty()) {
+                        isEnded = true;
+                        throwReadFailure();
+                    }
+                    chunk = next.iterator();
+                }
+                return chunk.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.next();
+            }
+
+            private void throwReadFailure() {
+                var e = readFailure;
+                if (Objects.isNull(e)) {
+                    return;
+                }
+                if (e instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(ExceptionUtils.getMessage(e), e);
+            }
+        }
+    }
+}
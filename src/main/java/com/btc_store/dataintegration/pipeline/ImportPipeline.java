@@ -0,0 +1,218 @@
+package com.btc_store.dataintegration.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs an import as three stages connected by bounded queues: the calling thread reads rows, a pool of converter
+ * workers turns chunks of rows into models and a single persister commits them.
+ * <p>
+ * Rows are routed to a converter by their partition key, so rows of the same unique key are always converted by the
+ * same worker and in file order. A worker converts its next chunk only after the previous one is committed, hence a
+ * record repeated in a later chunk is found in the database instead of being created twice. Full queues block the
+ * stage in front of them, so memory stays bounded by chunk size, worker count and queue capacity. The first error of
+ * any stage stops every stage and is thrown from {@link #run}. An instance runs a single import.
+ */
+@Slf4j
+public class ImportPipeline<R, M> {
+
+    private static final long POLL_MILLIS = 100;
+
+    public interface Converter<R, M> {
+
+        List<M> convert(List<R> chunk) throws Exception;
+
+        /**
+         * Called once the models of the last converted chunk are committed.
+         */
+        void committed();
+    }
+
+    @FunctionalInterface
+    public interface Persister<M> {
+
+        void persist(List<M> models) throws Exception;
+    }
+
+    private record Chunk<R>(long firstIndex, List<R> rows) {
+    }
+
+    private record Converted<R, M>(Chunk<R> chunk, List<M> models, CountDownLatch committed) {
+    }
+
+    private final int workers;
+    private final int chunkSize;
+    private final int queueCapacity;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    //first row index of every chunk which is read but not committed yet...
+    private final ConcurrentSkipListSet<Long> pendingChunks = new ConcurrentSkipListSet<>();
+    private final AtomicLong rowsRead = new AtomicLong();
+
+    public ImportPipeline(int workers, int chunkSize, int queueCapacity) {
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param partitionKey  rows having equal keys are converted by the same worker, {@code null} keys are spread evenly
+     * @param committedRows called after every commit with the number of leading rows of the input which are all committed
+     * @return number of committed rows
+     */
+    public long run(Iterator<R> rows, Function<R, Object> partitionKey, Supplier<Converter<R, M>> converters,
+                    Persister<M> persister, IntConsumer committedRows) throws Exception {
+        //import user of the calling thread is kept on the stage threads...
+        var executorService = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(workers + 1, new CustomizableThreadFactory("import-pipeline-")));
+        try {
+            var inputs = new ArrayList<BlockingQueue<Chunk<R>>>(workers);
+            var output = new ArrayBlockingQueue<Converted<R, M>>(queueCapacity);
+            for (var worker = 0; worker < workers; worker++) {
+                var input = new ArrayBlockingQueue<Chunk<R>>(queueCapacity);
+                var converter = converters.get();
+                inputs.add(input);
+                executorService.execute(() -> convertStage(input, converter, output));
+            }
+            var persisted = executorService.submit(() -> persistStage(output, persister, committedRows));
+
+            readStage(rows, partitionKey, inputs);
+
+            var committed = persisted.get();
+            throwFailure();
+            return committed;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void readStage(Iterator<R> rows, Function<R, Object> partitionKey, List<BlockingQueue<Chunk<R>>> inputs) {
+        try {
+            var buffers = new ArrayList<List<R>>(workers);
+            var firstIndexes = new long[workers];
+            for (var worker = 0; worker < workers; worker++) {
+                buffers.add(new ArrayList<>(chunkSize));
+            }
+
+            var index = 0L;
+            while (Objects.isNull(failure.get()) && rows.hasNext()) {
+                var row = rows.next();
+                var key = partitionKey.apply(row);
+                var worker = Objects.isNull(key) ? (int) (index % workers) : Math.floorMod(key.hashCode(), workers);
+                if (buffers.get(worker).isEmpty()) {
+                    firstIndexes[worker] = index;
+                    pendingChunks.add(index);
+                }
+                buffers.get(worker).add(row);
+                rowsRead.set(++index);
+
+                if (buffers.get(worker).size() >= chunkSize) {
+                    offer(inputs.get(worker), new Chunk<>(firstIndexes[worker], buffers.get(worker)));
+                    buffers.set(worker, new ArrayList<>(chunkSize));
+                }
+            }
+
+            for (var worker = 0; worker < workers; worker++) {
+                if (!buffers.get(worker).isEmpty()) {
+                    offer(inputs.get(worker), new Chunk<>(firstIndexes[worker], buffers.get(worker)));
+                }
+                offer(inputs.get(worker), new Chunk<>(-1, null));
+            }
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    private void convertStage(BlockingQueue<Chunk<R>> input, Converter<R, M> converter, BlockingQueue<Converted<R, M>> output) {
+        try {
+            while (Objects.isNull(failure.get())) {
+                var chunk = input.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(chunk)) {
+                    continue;
+                }
+                if (Objects.isNull(chunk.rows())) {
+                    offer(output, new Converted<>(null, null, null));
+                    return;
+                }
+
+                var converted = new Converted<>(chunk, converter.convert(chunk.rows()), new CountDownLatch(1));
+                offer(output, converted);
+                while (!converted.committed().await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (Objects.nonNull(failure.get())) {
+                        return;
+                    }
+                }
+                converter.committed();
+            }
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    private long persistStage(BlockingQueue<Converted<R, M>> output, Persister<M> persister, IntConsumer committedRows) {
+        var committed = 0L;
+        var finishedWorkers = 0;
+        try {
+            while (finishedWorkers < workers && Objects.isNull(failure.get())) {
+                var converted = output.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(converted)) {
+                    continue;
+                }
+                if (Objects.isNull(converted.chunk())) {
+                    finishedWorkers++;
+                    continue;
+                }
+
+                persister.persist(converted.models());
+                committed += converted.chunk().rows().size();
+                pendingChunks.remove(converted.chunk().firstIndex());
+                converted.committed().countDown();
+
+                var read = rowsRead.get();
+                committedRows.accept((int) (pendingChunks.isEmpty() ? read : Math.min(read, pendingChunks.first())));
+            }
+        } catch (Throwable e) {
+            fail(e);
+        }
+        return committed;
+    }
+
+    private <T> void offer(BlockingQueue<T> queue, T element) throws InterruptedException {
+        while (!queue.offer(element, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (Objects.nonNull(failure.get())) {
+                throw new CancellationException("Import pipeline is stopped");
+            }
+        }
+    }
+
+    private void fail(Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+            log.error("Import pipeline is stopping...{}", e.getMessage());
+        }
+    }
+
+    private void throwFailure() throws Exception {
+        var e = failure.get();
+        if (Objects.isNull(e)) {
+            return;
+        }
+        if (e instanceof Exception exception) {
+            throw exception;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException(e);
+    }
+}
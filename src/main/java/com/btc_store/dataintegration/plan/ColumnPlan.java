@@ -0,0 +1,103 @@
+package com.btc_store.dataintegration.plan;
+
+import com.btc_store.dataintegration.binder.PropertyBinder;
+import com.btc_store.dataintegration.binder.PropertyBinders;
+import com.btc_store.dataintegration.convert.ValueConverter;
+import com.btc_store.dataintegration.convert.ValueConverters;
+import com.btc_store.dataintegration.enums.MergeStrategyEnum;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import util.StoreClassUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SITE_MODEL;
+
+/**
+ * Compiled form of a single csv/json header such as {@code site(code)[unique]}, {@code name[lang=tr]}
+ * or {@code userGroups(code)[mode=override]}. Instances are immutable and shared between rows and threads.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ColumnPlan {
+
+    private static final String COLON = ":";
+    private static final String UNIQUE = "unique";
+    private static final String LANG = "lang";
+    private static final String MODE = "mode";
+    private static final String SITE = "site";
+
+    private final String header;
+    //index of the column in the header the plan is compiled for...
+    private final int index;
+    private final String fieldName;
+    private final boolean unique;
+    private final boolean relation;
+    private final List<String> keyParts;
+    private final Locale locale;
+    private final MergeStrategyEnum mergeStrategy;
+    private final PropertyBinder binder;
+    //converter of attribute columns, relations are resolved by their key parts...
+    private final ValueConverter converter;
+    private final Class<?> targetClass;
+    private final boolean siteTarget;
+    private final boolean siteField;
+
+    public boolean isLocalized() {
+        return Objects.nonNull(locale);
+    }
+
+    public boolean isCollection() {
+        return binder.isCollection();
+    }
+
+    public boolean isSetCollection() {
+        return binder.isSet();
+    }
+
+    static ColumnPlan compile(String header, int index, Class<?> itemType) throws NoSuchFieldException, ClassNotFoundException {
+        var name = StringUtils.substringBefore(header, "[");
+        var isRelation = StringUtils.contains(name, "(");
+
+        var unique = false;
+        Locale locale = null;
+        var mergeStrategy = MergeStrategyEnum.MERGE;
+        var options = StringUtils.substringsBetween(StringUtils.substring(header, name.length()), "[", "]");
+        for (var option : Objects.isNull(options) ? new String[0] : options) {
+            if (StringUtils.equals(option, UNIQUE)) {
+                unique = true;
+            } else if (StringUtils.startsWith(option, LANG + "=")) {
+                locale = Locale.forLanguageTag(StringUtils.substringAfter(option, "="));
+            } else if (StringUtils.startsWith(option, MODE + "=")) {
+                mergeStrategy = MergeStrategyEnum.valueOf(StringUtils.toRootUpperCase(StringUtils.substringAfter(option, "=")));
+            }
+        }
+
+        var fieldName = isRelation ? StringUtils.substringBefore(name, "(") : name;
+        var keyParts = isRelation ? List.of(StringUtils.substringBetween(name, "(", ")").split(COLON)) : List.<String>of();
+
+        var binder = PropertyBinders.find(itemType, fieldName);
+        if (Objects.isNull(binder)) {
+            throw new NoSuchFieldException(String.format("%s alanı %s tablosunda yer alan bir alan değildir.",
+                    fieldName, StoreClassUtils.getSimpleName(itemType)));
+        }
+
+        Class<?> targetClass = null;
+        if (isRelation) {
+            targetClass = binder.isCollection() ? binder.getElementType() : binder.getPropertyType();
+            if (Objects.isNull(targetClass)) {
+                throw new ClassNotFoundException("Element type of " + binder.getGenericType().getTypeName() + " can not be resolved");
+            }
+        }
+
+        var converter = isRelation ? null : ValueConverters.of(binder, mergeStrategy);
+
+        return new ColumnPlan(header, index, fieldName, unique, isRelation, keyParts, locale, mergeStrategy, binder, converter, targetClass,
+                Objects.nonNull(targetClass) && StringUtils.equals(StoreClassUtils.getSimpleName(targetClass), SITE_MODEL),
+                StringUtils.equals(fieldName, SITE));
+    }
+}
@@ -0,0 +1,46 @@
+package com.btc_store.dataintegration.plan;
+
+import com.btc_store.dataintegration.row.RowHeader;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable column plan of an item type for one header signature. It is compiled once by {@link ImportPlanCache}
+ * and reused for every row having the same headers; columns read the values of a row by their index.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ImportPlan {
+
+    private final Class<?> itemType;
+    private final RowHeader header;
+    private final List<ColumnPlan> columns;
+    private final List<ColumnPlan> uniqueColumns;
+    private final List<ColumnPlan> relationColumns;
+    private final List<ColumnPlan> attributeColumns;
+    private final String[] relationFieldNames;
+
+    //rows of the same source share their header, so it is mostly matched by reference...
+    public boolean matches(RowHeader rowHeader) {
+        return header == rowHeader || header.equals(rowHeader);
+    }
+
+    static ImportPlan compile(Class<?> itemType, RowHeader header) throws NoSuchFieldException, ClassNotFoundException {
+        var columns = new ArrayList<ColumnPlan>(header.size());
+        for (var index = 0; index < header.size(); index++) {
+            columns.add(ColumnPlan.compile(header.getName(index), index, itemType));
+        }
+
+        var uniqueColumns = columns.stream().filter(ColumnPlan::isUnique).toList();
+        var relationColumns = columns.stream().filter(ColumnPlan::isRelation).toList();
+        var attributeColumns = columns.stream().filter(c -> !c.isRelation()).toList();
+        var relationFieldNames = relationColumns.stream().map(ColumnPlan::getFieldName).distinct().toArray(String[]::new);
+
+        return new ImportPlan(itemType, header, List.copyOf(columns), uniqueColumns, relationColumns,
+                attributeColumns, relationFieldNames);
+    }
+}
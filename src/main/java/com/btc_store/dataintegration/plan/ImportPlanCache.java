@@ -0,0 +1,41 @@
+package com.btc_store.dataintegration.plan;
+
+import com.btc_store.dataintegration.row.RowHeader;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded cache of compiled {@link ImportPlan}s keyed by item type and header signature, so feeds with the same
+ * shape skip header parsing and bean introspection entirely. Columns are indexed, so the same headers in an other
+ * order are compiled as an other plan.
+ */
+@Component
+@Slf4j
+public class ImportPlanCache {
+
+    private final Cache<Pair<Class<?>, RowHeader>, ImportPlan> plans;
+
+    public ImportPlanCache(@Value("${csv.import.plan.cache.size}") long cacheSize) {
+        this.plans = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    public ImportPlan getPlan(Class<?> itemType, RowHeader header) throws Exception {
+        var key = new ImmutablePair<Class<?>, RowHeader>(itemType, header);
+        try {
+            return plans.get(key, () -> {
+                log.info("Compiling import plan for {} with headers {}", itemType.getSimpleName(), header);
+                return ImportPlan.compile(itemType, header);
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.btc_store.dataintegration.row;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Values of a csv or json row by column index of its {@link RowHeader}. A row holds only its values, the names are
+ * kept once by the header shared with the other rows of the same source. It is written to json as a name to value
+ * object, the same way a map row is.
+ */
+public final class Row {
+
+    @Getter
+    private final RowHeader header;
+    private final String[] values;
+
+    public Row(RowHeader header, String[] values) {
+        if (header.size() != values.length) {
+            throw new IllegalArgumentException("The number of data elements is not the same as the number of header elements");
+        }
+        this.header = header;
+        this.values = values;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public String get(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return value of the column or {@code null} when the row has no such column
+     */
+    public String get(String name) {
+        var index = header.indexOf(name);
+        return index < 0 ? null : values[index];
+    }
+
+    public void set(int index, String value) {
+        values[index] = value;
+    }
+
+    @JsonValue
+    public Map<String, String> toMap() {
+        var map = new LinkedHashMap<String, String>(values.length * 2);
+        for (var i = 0; i < values.length; i++) {
+            map.put(header.getName(i), values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
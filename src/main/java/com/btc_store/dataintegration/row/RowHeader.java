@@ -0,0 +1,92 @@
+package com.btc_store.dataintegration.row;
+
+import java.util.*;
+
+/**
+ * Column names of the rows read from one csv file or json body. Rows of the same source share their header, so a
+ * name is hashed once per source instead of once per cell; columns are read by index afterwards. Instances are
+ * immutable and equal when their names are equal in the same order.
+ */
+public final class RowHeader {
+
+    private final String[] names;
+    private final Map<String, Integer> indexes;
+    //column indexes in name order, rows are fingerprinted in this order...
+    private final int[] sortedIndexes;
+
+    private RowHeader(String[] names) {
+        this.names = names;
+        this.indexes = new HashMap<>(names.length * 2);
+        for (var i = 0; i < names.length; i++) {
+            if (Objects.nonNull(indexes.put(names[i], i))) {
+                throw new IllegalArgumentException("Header " + names[i] + " is given more than once");
+            }
+        }
+        this.sortedIndexes = indexes.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                .mapToInt(Map.Entry::getValue).toArray();
+    }
+
+    public static RowHeader of(String... names) {
+        return new RowHeader(names.clone());
+    }
+
+    public static RowHeader of(Collection<String> names) {
+        return new RowHeader(names.toArray(String[]::new));
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public List<String> getNames() {
+        return List.of(names);
+    }
+
+    /**
+     * @return index of the column or {@code -1} when the header has no such column
+     */
+    public int indexOf(String name) {
+        var index = indexes.get(name);
+        return Objects.isNull(index) ? -1 : index;
+    }
+
+    public boolean contains(String name) {
+        return indexes.containsKey(name);
+    }
+
+    /**
+     * @return {@code true} when the header has exactly the given names in any order
+     */
+    public boolean matches(Set<String> names) {
+        return this.names.length == names.size() && indexes.keySet().containsAll(names);
+    }
+
+    /**
+     * @return index of the column which is at the given position when the names are sorted
+     */
+    public int sortedIndex(int position) {
+        return sortedIndexes[position];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof RowHeader header && Arrays.equals(names, header.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(names);
+    }
+}
@@ -0,0 +1,41 @@
+package com.btc_store.dataintegration.row;
+
+import com.google.common.collect.Iterators;
+
+import java.util.*;
+
+/**
+ * Adapts map rows to {@link Row}s. Consecutive maps having the same keys share one header.
+ */
+public final class Rows {
+
+    private Rows() {
+    }
+
+    public static List<Row> of(List<Map<String, String>> maps) {
+        var rows = new ArrayList<Row>(maps.size());
+        of(maps.iterator()).forEachRemaining(rows::add);
+        return rows;
+    }
+
+    public static Iterator<Row> of(Iterator<Map<String, String>> maps) {
+        var adapter = new Adapter();
+        return Iterators.transform(maps, adapter::toRow);
+    }
+
+    private static class Adapter {
+
+        private RowHeader header;
+
+        private Row toRow(Map<String, String> map) {
+            if (Objects.isNull(header) || !header.matches(map.keySet())) {
+                header = RowHeader.of(map.keySet());
+            }
+            var values = new String[header.size()];
+            for (var i = 0; i < values.length; i++) {
+                values[i] = map.get(header.getName(i));
+            }
+            return new Row(header, values);
+        }
+    }
+}
@@ -3,8 +3,19 @@ package com.btc_store.dataintegration.service;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.File;
+import java.io.InputStream;
 
 public interface FileImportService {
 
     Pair<Boolean,String> importFile(File file, boolean isMoveFile);
+
+    /**
+     * Imports a file left in the processing folder by an interrupted run, starting after its last committed row.
+     */
+    Pair<Boolean,String> resumeFile(File file);
+
+    /**
+     * Imports csv rows read from the stream by the current user, the stream is not copied to disk.
+     */
+    Pair<Boolean,String> importStream(InputStream inputStream, String processType, String typeName);
 }
@@ -0,0 +1,18 @@
+package com.btc_store.dataintegration.service;
+
+import com.btc_store.dataintegration.data.ImportJobData;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportJobService {
+
+    /**
+     * Keeps the body and imports it in the background.
+     *
+     * @return job whose code is polled for the progress
+     */
+    ImportJobData submit(String processType, Class itemClass, InputStream body) throws IOException;
+
+    ImportJobData getJob(String code);
+}
@@ -1,13 +1,65 @@
 package com.btc_store.dataintegration.service;
 
+import com.btc_store.dataintegration.row.Row;
 import com.btc_store.domain.enums.ImportProcessType;
 import com.btc_store.domain.model.custom.SiteModel;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
 
+/**
+ * Imports rows of an item type. Map rows are adapted to {@link Row}s, rows sharing a header are imported faster by
+ * the row methods.
+ */
 public interface ImportService {
 
     Pair<Boolean,String> importData(Class itemType, List<Map<String, String>> data, ImportProcessType importProcessType, SiteModel siteModel);
+
+    /**
+     * Imports rows as they are read, committing every chunk on its own. Rows already committed stay in the database
+     * when a later row fails.
+     */
+    Pair<Boolean,String> importData(Class itemType, Iterator<Map<String, String>> rows, ImportProcessType importProcessType, SiteModel siteModel);
+
+    /**
+     * @param committedRows called after every chunk commit with the number of rows committed so far
+     */
+    Pair<Boolean,String> importData(Class itemType, Iterator<Map<String, String>> rows, ImportProcessType importProcessType, SiteModel siteModel,
+                                    IntConsumer committedRows);
+
+    /**
+     * Imports every valid row. A chunk which can not be imported is imported again row by row, every failing row is
+     * given to {@code rejectedRows} with its reason and the import goes on. Import fails once more rows than the
+     * error limit are rejected. Rows are not imported by the pipeline in this mode.
+     *
+     * @param rejectedRows called with every rejected row and its reason, {@code null} fails the import on the first failing row
+     */
+    Pair<Boolean,String> importData(Class itemType, Iterator<Map<String, String>> rows, ImportProcessType importProcessType, SiteModel siteModel,
+                                    IntConsumer committedRows, BiConsumer<Map<String, String>, String> rejectedRows);
+
+    /**
+     * Saves the rows as a full feed of the item type and site, records of the site which are not given by the feed are
+     * removed once every row is committed. Nothing is removed when the feed fails or has no rows.
+     */
+    Pair<Boolean,String> syncData(Class itemType, Iterator<Map<String, String>> rows, SiteModel siteModel, IntConsumer committedRows);
+
+    /**
+     * Converts every row before anything is written, so the rows are imported all or nothing.
+     */
+    Pair<Boolean,String> importRows(Class itemType, List<Row> rows, ImportProcessType importProcessType, SiteModel siteModel);
+
+    /**
+     * Imports rows as they are read, see {@link #importData(Class, Iterator, ImportProcessType, SiteModel, IntConsumer, BiConsumer)}.
+     */
+    Pair<Boolean,String> importRows(Class itemType, Iterator<Row> rows, ImportProcessType importProcessType, SiteModel siteModel,
+                                    IntConsumer committedRows, BiConsumer<Row, String> rejectedRows);
+
+    /**
+     * Saves the rows as a full feed, see {@link #syncData(Class, Iterator, SiteModel, IntConsumer)}.
+     */
+    Pair<Boolean,String> syncRows(Class itemType, Iterator<Row> rows, SiteModel siteModel, IntConsumer committedRows);
 }
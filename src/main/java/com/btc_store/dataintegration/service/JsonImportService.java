@@ -0,0 +1,18 @@
+package com.btc_store.dataintegration.service;
+
+import com.btc_store.domain.model.custom.dataintegration.DataIntegrationLogModel;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.InputStream;
+import java.util.function.IntConsumer;
+
+public interface JsonImportService {
+
+    /**
+     * Imports a json array of rows while it is parsed and keeps the progress and the result on the given log model.
+     *
+     * @param readRows called with the number of rows handed to the import so far
+     */
+    Pair<Boolean, String> importJson(String processType, Class itemClass, InputStream body,
+                                     DataIntegrationLogModel dataintegrationLogModel, IntConsumer readRows) throws Exception;
+}
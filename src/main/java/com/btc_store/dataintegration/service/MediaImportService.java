@@ -1,11 +1,17 @@
 package com.btc_store.dataintegration.service;
 
+import com.btc_store.dataintegration.row.Row;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 public interface MediaImportService {
 
     Pair<Boolean, String> importData(Class itemType, boolean move, List<Map<String, String>> data);
+
+    Pair<Boolean, String> importData(Class itemType, boolean move, Iterator<Map<String, String>> rows);
+
+    Pair<Boolean, String> importRows(Class itemType, boolean move, Iterator<Row> rows);
 }
@@ -0,0 +1,35 @@
+package com.btc_store.dataintegration.service;
+
+import com.btc_store.dataintegration.lookup.LookupKey;
+import com.btc_store.dataintegration.lookup.ReferenceDictionary;
+import com.btc_store.domain.model.custom.extend.ItemModel;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface ModelLookupService {
+
+    <T extends ItemModel> Map<LookupKey, Optional<T>> searchByKeys(Class<T> itemType, Collection<LookupKey> keys);
+
+    ReferenceDictionary resolveReferences(Map<Class<?>, Set<LookupKey>> references);
+
+    Object identifierOf(ItemModel model);
+
+    /**
+     * @param excludedParams records having any of these attribute values are left out, {@code null} values are not
+     * @param after          identifier of the last record of the previous page or {@code null} for the first page
+     * @return identifiers of the records having the given attribute values in identifier order
+     */
+    <T extends ItemModel> List<Object> searchIds(Class<T> itemType, Map<String, Object> params, Map<String, Object> excludedParams,
+                                                 Object after, int limit);
+
+    <T extends ItemModel> List<T> searchByIds(Class<T> itemType, Collection<Object> ids);
+
+    /**
+     * @return {@code true} when a record of any type still refers to the given model
+     */
+    boolean isReferenced(ItemModel model);
+}
@@ -1,31 +1,41 @@
 package com.btc_store.dataintegration.service.impl;
 
 import com.btc_store.dataintegration.constant.DataIntegrationConstant;
+import com.btc_store.dataintegration.csv.CsvFeeds;
+import com.btc_store.dataintegration.csv.CsvRowIterator;
+import com.btc_store.dataintegration.csv.ImportCheckpoint;
+import com.btc_store.dataintegration.csv.RejectedRowWriter;
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.dataintegration.metrics.ImportMetrics;
+import com.btc_store.dataintegration.partition.SitePartitioner;
 import com.btc_store.dataintegration.service.FileImportService;
 import com.btc_store.dataintegration.service.ImportService;
 import com.btc_store.dataintegration.service.MediaImportService;
 import com.btc_store.domain.enums.DataIntegrationStatus;
 import com.btc_store.domain.enums.ImportProcessType;
+import com.btc_store.domain.enums.SearchOperator;
 import com.btc_store.domain.model.custom.SiteModel;
 import com.btc_store.domain.model.custom.dataintegration.DataIntegrationLogModel;
 import com.btc_store.security.constant.AuthorizationConstants;
 import com.btc_store.service.ModelService;
+import com.btc_store.service.SearchService;
 import com.btc_store.service.SiteService;
 import com.btc_store.service.constant.ServiceConstant;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
-import com.opencsv.CSVReaderHeaderAware;
+import com.btc_store.service.exception.model.ModelNotFoundException;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.PeekingIterator;
 import com.opencsv.exceptions.CsvValidationException;
 import constant.PackageConstant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.input.BOMInputStream;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Value;
@@ -38,6 +48,8 @@ import util.StoreClassUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -46,10 +58,14 @@ import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SITE_FIELD;
 import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SITE_MODEL;
+import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SYNC_PROCESS_TYPE;
 
 @Service
 @RequiredArgsConstructor
@@ -59,6 +75,7 @@ public class FileImportServiceImpl implements FileImportService {
     private static final String FILE_DATE_PATTERN = "ddMMyyyyHHmmssSSS";
     private static final String UNDERSCORE = "_";
     private static final String CSV_INTEGRATION_USER = "csv_integration_user";
+    private static final String REJECTED_EXTENSION = ".rejected.csv";
 
     @Value(value = "${csv.listener.success.folder.path}")
     private String successFolderPath;
@@ -69,22 +86,75 @@ public class FileImportServiceImpl implements FileImportService {
     @Value(value = "${csv.listener.processing.folder.path}")
     private String processingFolder;
 
+    @Value(value = "${csv.import.streaming.enabled}")
+    private boolean streamingEnabled;
+
+    @Value(value = "${csv.import.continue.on.error}")
+    private boolean continueOnError;
+
+    @Value(value = "${csv.import.mapped.reader.enabled}")
+    private boolean mappedReaderEnabled;
+
+    @Value(value = "${csv.import.site.partition.enabled}")
+    private boolean sitePartitionEnabled;
+
+    @Value(value = "${csv.import.site.partition.max.sites}")
+    private int sitePartitionMaxSites;
+
+    @Value(value = "${csv.import.site.partition.queue.capacity}")
+    private int sitePartitionQueueCapacity;
+
+    @Value(value = "${csv.import.chunk.size}")
+    private int chunkSize;
+
 
     protected final ImportService importService;
     protected final MediaImportService mediaImportService;
     protected final ModelService modelService;
     protected final SiteService siteService;
+    protected final ImportMetrics importMetrics;
+    protected final SearchService searchService;
+
+    @Override
+    public Pair<Boolean, String> importFile(File file, boolean isMoveFile) {
+        return importFile(file, isMoveFile, false);
+    }
+
+    @Override
+    public Pair<Boolean, String> resumeFile(File file) {
+        return importFile(file, true, true);
+    }
 
     @Override
-    public synchronized Pair<Boolean, String> importFile(File file, boolean isMoveFile) {
+    public Pair<Boolean, String> importStream(InputStream inputStream, String processType, String typeName) {
+        Pair<Boolean, String> isSuccessPair;
+        var csvImport = new CsvImport(modelService.create(DataIntegrationLogModel.class), null);
+        log.info("Started to importing stream of {}", typeName);
+        try {
+            //rejected rows of a stream are named by its log...
+            csvImport.dataintegrationLogModel.setCode(UUID.randomUUID().toString());
+            csvImport.rejectedName = StringUtils.join(processType, UNDERSCORE, typeName, ".", csvImport.dataintegrationLogModel.getCode());
+            csvImport.rejectedRowWriter = rejectedRowWriter(csvImport.rejectedName, false);
+            //stream is imported by the user of the request, nothing is moved...
+            try (var reader = new CsvRowIterator(new InputStreamReader(new BOMInputStream(inputStream), StandardCharsets.UTF_8))) {
+                isSuccessPair = importCsv(reader, processType, typeName, false, csvImport);
+            }
+        } catch (Exception e) {
+            isSuccessPair = new ImmutablePair<>(Boolean.FALSE, ExceptionUtils.getMessage(e));
+            log.error("Error occurred while {} stream importing .... {}", typeName, e.getMessage());
+        }
+        csvImport.feedName = typeName;
+        csvImport.isSuccessPair = closeRejectedRows(isSuccessPair, csvImport);
+        saveLog(csvImport, null);
+        isSuccessPair = csvImport.isSuccessPair;
+        return isSuccessPair;
+    }
+
+    private Pair<Boolean, String> importFile(File file, boolean isMoveFile, boolean isResume) {
         Pair<Boolean, String> isSuccessPair = new ImmutablePair<>(Boolean.FALSE, "ERROR");
-        var dataintegrationLogModel = modelService.create(DataIntegrationLogModel.class);
-        boolean isSiteModel = false;
-        boolean isValid = false;
+        var feedImports = new ArrayList<CsvImport>();
         try {
-            var processTypeIndex = 0;
-            var itemTypeIndex = 1;
-            if (isMoveFile) {
+            if (isMoveFile && BooleanUtils.isFalse(isResume)) {
                 log.info("Moving processing folder");
                 var processingFolderFilePath = StringUtils.join(processingFolder, LocalDateTime.now().format(DateTimeFormatter.ofPattern(FILE_DATE_PATTERN))
                         + UNDERSCORE + file.getName());
@@ -92,153 +162,63 @@ public class FileImportServiceImpl implements FileImportService {
                         StandardCopyOption.COPY_ATTRIBUTES);
 
                 file = new File(processingFolderFilePath);
-                processTypeIndex++;
-                itemTypeIndex++;
             }
-
-            log.info("Started to importing file : " + file.getName());
-            SiteModel siteModel;
-            var itemAndProcessType = StringUtils.split(FilenameUtils.getBaseName(file.getName()), UNDERSCORE);
-            final var processType = StringUtils.capitalize(itemAndProcessType[processTypeIndex]);//Save
-            final var typeName = StringUtils.capitalize(itemAndProcessType[itemTypeIndex]);//Category
+            //files in processing folder are prefixed with the date they are taken...
+            var fileName = isMoveFile ? StringUtils.substringAfter(file.getName(), UNDERSCORE) : file.getName();
 
             Authentication authentication = new UsernamePasswordAuthenticationToken(CSV_INTEGRATION_USER, null,
                     AuthorityUtils.createAuthorityList(AuthorizationConstants.SUPER_ADMIN));
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            ImportProcessType importProcessType;
-            if (StringUtils.equalsIgnoreCase(processType, ImportProcessType.SAVE.getValue())) {
-                importProcessType = ImportProcessType.SAVE;
-            } else if (StringUtils.equalsIgnoreCase(processType, ImportProcessType.REMOVE.getValue())) {
-                importProcessType = ImportProcessType.REMOVE;
-            } else if (StringUtils.equalsIgnoreCase(processType, ImportProcessType.FILE.getValue())) {
-                importProcessType = ImportProcessType.FILE;
-            } else {
-                throw new NoSuchMethodException("Process type must be Save,Remove or File");
-            }
-
-            var className = StoreClassUtils.generateClassName(typeName, ServiceConstant.HYPHEN, PackageConstant.MODEL_PREFIX);
-            Class tclass = StoreClassUtils.getClassForPackage(className, PackageConstant.DOMAIN_PACKAGE);
-            try (var reader = new CSVReaderHeaderAware(new InputStreamReader(new BOMInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
-
-                List<Map<String, String>> allRows = new ArrayList<>();
-                Map<String, String> row;
-                while ((row = reader.readMap()) != null) {
-                    //csv dosyasından gelen csv-comment-line kolonu ignore edilir.
-                    row.remove("csv-comment-line");
-                    allRows.add(row);
+            if (CsvFeeds.isCompressed(fileName)) {
+                //feeds are decompressed while they are imported, every feed of a zip archive is resumed on its own...
+                var archive = file;
+                var isZip = StringUtils.endsWith(fileName, CsvFeeds.ZIP_EXTENSION);
+                var feedCount = CsvFeeds.read(archive, fileName, (feedName, inputStream) -> {
+                    var csvImport = feedImport(feedName, isZip ? new File(archive.getPath() + "." + feedName) : archive, isMoveFile);
+                    feedImports.add(csvImport);
+                    return importFeed(() -> new CsvRowIterator(new InputStreamReader(new BOMInputStream(inputStream), StandardCharsets.UTF_8)),
+                            isMoveFile, isResume, csvImport);
+                });
+                if (feedCount == 0) {
+                    throw new IllegalArgumentException(fileName + " has no csv file");
                 }
-
-
-                isSiteModel = StringUtils.equals(StoreClassUtils.getSimpleName(tclass), SITE_MODEL);
-                //check site
-                if (BooleanUtils.isFalse(isSiteModel) &&
-                        CollectionUtils.isNotEmpty(allRows)) {
-                    var siteCode = allRows.get(0).get(DataIntegrationConstant.SITE_FIELD);
-
-                    if (StringUtils.isEmpty(siteCode)) {
-                        throw new CsvValidationException(SITE_FIELD.concat(" field must not be null"));
-                    }
-
-                    var allSiteCodes = allRows.stream().map(a -> a.get(DataIntegrationConstant.SITE_FIELD)).collect(Collectors.toList());
-
-                    var allMatch = false;
-                    if (!Iterables.all(allSiteCodes, Predicates.isNull())) {
-                        allMatch = allSiteCodes.stream().allMatch(s -> s.equals(siteCode));
-                        isValid = true;
-                    }
-
-                    siteModel = siteService.getSiteModel(siteCode);
-                    if (BooleanUtils.isFalse(allMatch)) {
-                        dataintegrationLogModel.setStatus(DataIntegrationStatus.FAIL);
-                        dataintegrationLogModel.setCount(allRows.size());
-                        dataintegrationLogModel.setSite(siteModel);
-                        dataintegrationLogModel.setCode(UUID.randomUUID().toString());
-                        dataintegrationLogModel.setImportProcessType(importProcessType);
-                        dataintegrationLogModel.setStartDate(new Date());
-                        dataintegrationLogModel.setEndDate(new Date());
-                        dataintegrationLogModel.setItemType(className);
-                        dataintegrationLogModel.setDescription("Site field must be same for all rows");
-                        modelService.save(dataintegrationLogModel);
-                        throw new CsvValidationException("Site field must be same for all rows");
-                    }
-
-                    dataintegrationLogModel.setStatus(DataIntegrationStatus.PROCESSING);
-                    dataintegrationLogModel.setCount(allRows.size());
-                    dataintegrationLogModel.setSite(siteModel);
-                    dataintegrationLogModel.setCode(UUID.randomUUID().toString());
-                    dataintegrationLogModel.setImportProcessType(importProcessType);
-                    dataintegrationLogModel.setStartDate(new Date());
-                    dataintegrationLogModel.setItemType(className);
-                    modelService.save(dataintegrationLogModel);
-
-                    if (Objects.equals(ImportProcessType.FILE, importProcessType)) {
-                        isSuccessPair = mediaImportService.importData(tclass, isMoveFile, allRows);
-                    } else {
-                        isSuccessPair = importService.importData(tclass, allRows, importProcessType, siteModel);
-                    }
-
-                } else if (BooleanUtils.isTrue(isSiteModel) && CollectionUtils.isNotEmpty(allRows)) {
-                    if (Objects.equals(ImportProcessType.FILE, importProcessType)) {
-                        isSuccessPair = mediaImportService.importData(tclass, isMoveFile, allRows);
-                    } else {
-                        try {
-                            siteModel = siteService.getSiteModel(allRows.get(0).get(DataIntegrationConstant.CODE_FIELD));
-                        } catch (Exception e) {
-                            siteModel = null;
-                        }
-
-                        isSuccessPair = importService.importData(tclass, allRows, importProcessType, siteModel);
-                    }
-                }
-
+            } else {
+                var csvFile = file;
+                var csvImport = feedImport(fileName, csvFile, isMoveFile);
+                feedImports.add(csvImport);
+                importFeed(() -> openRows(csvFile), isMoveFile, isResume, csvImport);
             }
-
+            isSuccessPair = resultOf(feedImports);
 
         } catch (Exception e) {
             isSuccessPair = new ImmutablePair<>(Boolean.FALSE, ExceptionUtils.getMessage(e));
             log.error("Error occurred while {} file importing .... {}", file.getName(), e.getMessage());
         }
 
-
         //According to result move file success or error...
+        String logFile = null;
         try {
             if (BooleanUtils.isTrue(isSuccessPair.getKey())) {
-                if (BooleanUtils.isFalse(isSiteModel)) {
-                    dataintegrationLogModel.setEndDate(new Date());
-                    dataintegrationLogModel.setStatus(DataIntegrationStatus.SUCCESS);
-                    dataintegrationLogModel.setDescription(DataIntegrationStatus.SUCCESS.toString());
-                    modelService.save(dataintegrationLogModel);
-                }
                 if (BooleanUtils.isTrue(isMoveFile)) {
                     var successFolder = StringUtils.join(successFolderPath, file.getName());
                     FileUtils.moveFile(file, new File(FilenameUtils.separatorsToSystem(successFolder)),
                             StandardCopyOption.REPLACE_EXISTING);
-                    if (BooleanUtils.isFalse(isSiteModel)) {
-                        dataintegrationLogModel.setLogFile(successFolder);
-                        modelService.save(dataintegrationLogModel);
-                    }
-
+                    logFile = successFolder;
                 }
             } else {
 
-                var logFilePath = StringUtils.join(errorFolderPath,
-                        FilenameUtils.getBaseName(file.getName()), ".log");
-                Path logFile = Path.of(logFilePath);
-                if (BooleanUtils.isFalse(isSiteModel) && BooleanUtils.isTrue(isValid)) {
-                    dataintegrationLogModel.setEndDate(new Date());
-                    dataintegrationLogModel.setDescription(isSuccessPair.getValue());
-                    dataintegrationLogModel.setLogFile(logFile.toString());
-                    dataintegrationLogModel.setStatus(DataIntegrationStatus.FAIL);
-                    modelService.save(dataintegrationLogModel);
-                }
+                var logFilePath = Path.of(StringUtils.join(errorFolderPath,
+                        FilenameUtils.getBaseName(file.getName()), ".log"));
+                logFile = logFilePath.toString();
 
                 if (BooleanUtils.isTrue(isMoveFile)) {
                     var errorFolder = StringUtils.join(errorFolderPath, file.getName());
 
+                    //compressed files are kept compressed...
                     FileUtils.moveFile(file, new File(FilenameUtils.separatorsToSystem(errorFolder)),
                             StandardCopyOption.REPLACE_EXISTING);
-                    Files.writeString(logFile, isSuccessPair.getValue());
+                    Files.writeString(logFilePath, isSuccessPair.getValue());
                 }
             }
 
@@ -246,7 +226,367 @@ public class FileImportServiceImpl implements FileImportService {
         } catch (Exception e) {
             log.error("Error occurred while moving/writing the error file to error folder..." + e.getMessage());
         }
+        for (var csvImport : feedImports) {
+            saveLog(csvImport, logFile);
+            if (Objects.nonNull(csvImport.checkpoint) && !file.exists()) {
+                csvImport.checkpoint.delete();
+            }
+        }
 
         return isSuccessPair;
     }
+
+    /**
+     * @param checkpointFile file the committed rows of the feed are kept next to, when the file is imported in processing folder
+     */
+    private CsvImport feedImport(String feedName, File checkpointFile, boolean isMoveFile) {
+        var csvImport = new CsvImport(modelService.create(DataIntegrationLogModel.class), isMoveFile ? ImportCheckpoint.of(checkpointFile) : null);
+        csvImport.feedName = feedName;
+        if (isMoveFile) {
+            //date prefix of the processing folder tells the runs of the same feed apart...
+            csvImport.runName = StringUtils.substringBefore(checkpointFile.getName(), UNDERSCORE);
+        }
+        return csvImport;
+    }
+
+    /**
+     * Imports the rows of a feed, the result is kept on the given {@link CsvImport}.
+     *
+     * @return {@code true} when the feed is imported
+     */
+    private boolean importFeed(Callable<CsvRowIterator> rows, boolean isMoveFile, boolean isResume, CsvImport csvImport) {
+        Pair<Boolean, String> isSuccessPair;
+        var feedName = csvImport.feedName;
+        try {
+            if (Objects.nonNull(csvImport.checkpoint) && csvImport.checkpoint.isResumed()) {
+                log.info("Resuming file : {} after {} committed rows", feedName, csvImport.checkpoint.getOffset());
+                csvImport.dataintegrationLogModel = findLogModel(csvImport.checkpoint.getLogCode(), csvImport.dataintegrationLogModel);
+            } else {
+                log.info("Started to importing file : " + feedName);
+            }
+            //suffixes after a dot such as .rejected are not part of the type name...
+            var itemAndProcessType = StringUtils.split(StringUtils.substringBefore(FilenameUtils.getBaseName(feedName), "."), UNDERSCORE);
+            final var processType = StringUtils.capitalize(itemAndProcessType[0]);//Save
+            final var typeName = StringUtils.capitalize(itemAndProcessType[1]);//Category
+            if (StringUtils.isEmpty(csvImport.dataintegrationLogModel.getCode())) {
+                csvImport.dataintegrationLogModel.setCode(UUID.randomUUID().toString());
+            }
+            //rejected rows are named like the feed followed by its run, so they can be put in the process folder as they are...
+            csvImport.rejectedName = StringUtils.join(StringUtils.join(itemAndProcessType, UNDERSCORE), ".",
+                    StringUtils.defaultIfEmpty(csvImport.runName, csvImport.dataintegrationLogModel.getCode()));
+            csvImport.rejectedRowWriter = rejectedRowWriter(csvImport.rejectedName, isResume);
+
+            try (var reader = rows.call()) {
+                isSuccessPair = importCsv(reader, processType, typeName, isMoveFile, csvImport);
+            }
+        } catch (Exception e) {
+            isSuccessPair = new ImmutablePair<>(Boolean.FALSE, ExceptionUtils.getMessage(e));
+            log.error("Error occurred while {} file importing .... {}", feedName, e.getMessage());
+        }
+        csvImport.isSuccessPair = closeRejectedRows(isSuccessPair, csvImport);
+        return BooleanUtils.isTrue(csvImport.isSuccessPair.getKey());
+    }
+
+    /**
+     * @return result of the feeds of a file, a file is imported when all of its feeds are imported
+     */
+    private Pair<Boolean, String> resultOf(List<CsvImport> feedImports) {
+        if (feedImports.size() == 1) {
+            return feedImports.get(0).isSuccessPair;
+        }
+        //feeds of an archive after a failing one are not imported...
+        var isSuccess = feedImports.stream().allMatch(f -> BooleanUtils.isTrue(f.isSuccessPair.getKey()));
+        return new ImmutablePair<>(isSuccess, feedImports.stream().map(f -> f.feedName + " : " + f.isSuccessPair.getValue())
+                .collect(Collectors.joining(System.lineSeparator())));
+    }
+
+    private void saveLog(CsvImport csvImport, String logFile) {
+        //every site of a partitioned feed has its own log...
+        if (!csvImport.partitions.isEmpty()) {
+            csvImport.partitions.forEach(partition -> saveLog(partition, logFile));
+            return;
+        }
+        var isSuccessPair = csvImport.isSuccessPair;
+        var isSuccess = BooleanUtils.isTrue(isSuccessPair.getKey());
+        if (BooleanUtils.isTrue(csvImport.isSiteModel) || (!isSuccess && BooleanUtils.isFalse(csvImport.isValid))) {
+            return;
+        }
+        try {
+            var dataintegrationLogModel = csvImport.dataintegrationLogModel;
+            dataintegrationLogModel.setEndDate(new Date());
+            if (isSuccess) {
+                dataintegrationLogModel.setStatus(DataIntegrationStatus.SUCCESS);
+                dataintegrationLogModel.setDescription(csvImport.hasRejectedRows() ? isSuccessPair.getValue() : DataIntegrationStatus.SUCCESS.toString());
+            } else {
+                dataintegrationLogModel.setStatus(DataIntegrationStatus.FAIL);
+                dataintegrationLogModel.setDescription(isSuccessPair.getValue());
+            }
+            if (Objects.nonNull(logFile)) {
+                dataintegrationLogModel.setLogFile(logFile);
+            }
+            modelService.save(dataintegrationLogModel);
+        } catch (Exception e) {
+            log.error("Error occurred while saving the log of {}...{}", csvImport.feedName, e.getMessage());
+        }
+    }
+
+    /**
+     * @return rows of the file, large files are read faster by the mapped reader which decodes only the imported columns
+     */
+    private CsvRowIterator openRows(File file) throws IOException {
+        if (BooleanUtils.isTrue(mappedReaderEnabled)) {
+            return new CsvRowIterator(file.toPath());
+        }
+        return new CsvRowIterator(new InputStreamReader(new BOMInputStream(new FileInputStream(file)), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Imports the csv rows of the reader, the state of the import is kept on the given {@link CsvImport}.
+     */
+    private Pair<Boolean, String> importCsv(CsvRowIterator reader, String processType, String typeName, boolean isMoveFile,
+                                            CsvImport csvImport) throws Exception {
+        Pair<Boolean, String> isSuccessPair = new ImmutablePair<>(Boolean.FALSE, "ERROR");
+        var dataintegrationLogModel = csvImport.dataintegrationLogModel;
+        var checkpoint = csvImport.checkpoint;
+        SiteModel siteModel;
+
+        ImportProcessType importProcessType;
+        var isSync = StringUtils.equalsIgnoreCase(processType, SYNC_PROCESS_TYPE);
+        var rejectedRowWriter = csvImport.rejectedRowWriter;
+        if (isSync || StringUtils.equalsIgnoreCase(processType, ImportProcessType.SAVE.getValue())) {
+            importProcessType = ImportProcessType.SAVE;
+        } else if (StringUtils.equalsIgnoreCase(processType, ImportProcessType.REMOVE.getValue())) {
+            importProcessType = ImportProcessType.REMOVE;
+        } else if (StringUtils.equalsIgnoreCase(processType, ImportProcessType.FILE.getValue())) {
+            importProcessType = ImportProcessType.FILE;
+        } else {
+            throw new NoSuchMethodException("Process type must be Save,Remove,File or Sync");
+        }
+
+        var className = StoreClassUtils.generateClassName(typeName, ServiceConstant.HYPHEN, PackageConstant.MODEL_PREFIX);
+        Class tclass = StoreClassUtils.getClassForPackage(className, PackageConstant.DOMAIN_PACKAGE);
+        PeekingIterator<Row> rows = Iterators.peekingIterator(reader);
+        var rowCount = new MutableInt();
+
+        csvImport.isSiteModel = StringUtils.equals(StoreClassUtils.getSimpleName(tclass), SITE_MODEL);
+        //check site
+        if (BooleanUtils.isFalse(csvImport.isSiteModel) && rows.hasNext() && BooleanUtils.isTrue(sitePartitionEnabled)) {
+            isSuccessPair = importPartitioned(tclass, className, isMoveFile, isSync, rows, importProcessType, csvImport);
+        } else if (BooleanUtils.isFalse(csvImport.isSiteModel) && rows.hasNext()) {
+            var siteCode = rows.peek().get(DataIntegrationConstant.SITE_FIELD);
+
+            if (StringUtils.isEmpty(siteCode)) {
+                throw new CsvValidationException(SITE_FIELD.concat(" field must not be null"));
+            }
+            csvImport.isValid = true;
+
+            siteModel = siteService.getSiteModel(siteCode);
+            dataintegrationLogModel.setStatus(DataIntegrationStatus.PROCESSING);
+            dataintegrationLogModel.setSite(siteModel);
+            if (StringUtils.isEmpty(dataintegrationLogModel.getCode())) {
+                dataintegrationLogModel.setCode(UUID.randomUUID().toString());
+            }
+            if (Objects.isNull(dataintegrationLogModel.getStartDate())) {
+                dataintegrationLogModel.setStartDate(new Date());
+            }
+            dataintegrationLogModel.setImportProcessType(importProcessType);
+            dataintegrationLogModel.setItemType(className);
+            modelService.save(dataintegrationLogModel);
+            if (Objects.nonNull(checkpoint)) {
+                checkpoint.setLogCode(dataintegrationLogModel.getCode());
+            }
+
+            //site of every row is checked while the rows are read, the file is not read twice...
+            var checkedRows = Iterators.transform(rows, row -> {
+                rowCount.increment();
+                if (!StringUtils.equals(siteCode, row.get(DataIntegrationConstant.SITE_FIELD))) {
+                    throw new IllegalArgumentException("Site field must be same for all rows");
+                }
+                return row;
+            });
+            try {
+                isSuccessPair = importRows(tclass, isMoveFile, isSync, checkedRows, importProcessType, siteModel, checkpoint, rejectedRowWriter);
+            } finally {
+                dataintegrationLogModel.setCount(rowCount.intValue());
+            }
+
+        } else if (BooleanUtils.isTrue(csvImport.isSiteModel) && rows.hasNext()) {
+            if (Objects.equals(ImportProcessType.FILE, importProcessType)) {
+                isSuccessPair = importRows(tclass, isMoveFile, isSync, rows, importProcessType, null, checkpoint, null);
+            } else {
+                try {
+                    siteModel = siteService.getSiteModel(rows.peek().get(DataIntegrationConstant.CODE_FIELD));
+                } catch (Exception e) {
+                    siteModel = null;
+                }
+
+                isSuccessPair = importRows(tclass, isMoveFile, isSync, rows, importProcessType, siteModel, checkpoint, rejectedRowWriter);
+            }
+        }
+        return isSuccessPair;
+    }
+
+    /**
+     * Rows of every site are imported concurrently as a partition of the feed having its own log and rejected rows, see
+     * {@link SitePartitioner}. Partitions are not checkpointed, an interrupted feed is imported again from its beginning.
+     */
+    private Pair<Boolean, String> importPartitioned(Class itemType, String className, boolean isMoveFile, boolean isSync, Iterator<Row> rows,
+                                                    ImportProcessType importProcessType, CsvImport csvImport) throws Exception {
+        var partitions = new ConcurrentHashMap<String, CsvImport>();
+        var results = new SitePartitioner(SITE_FIELD, sitePartitionMaxSites, chunkSize, sitePartitionQueueCapacity).run(rows, (siteCode, siteRows) -> {
+            var partition = new CsvImport(modelService.create(DataIntegrationLogModel.class), null);
+            partition.feedName = siteCode;
+            partition.isValid = true;
+            partition.rejectedRowWriter = rejectedRowWriter(StringUtils.join(csvImport.rejectedName, ".", siteCode), false);
+            partitions.put(siteCode, partition);
+
+            //site of the partition is resolved once...
+            var siteModel = siteService.getSiteModel(siteCode);
+            var dataintegrationLogModel = partition.dataintegrationLogModel;
+            dataintegrationLogModel.setStatus(DataIntegrationStatus.PROCESSING);
+            dataintegrationLogModel.setSite(siteModel);
+            dataintegrationLogModel.setCode(UUID.randomUUID().toString());
+            dataintegrationLogModel.setStartDate(new Date());
+            dataintegrationLogModel.setImportProcessType(importProcessType);
+            dataintegrationLogModel.setItemType(className);
+            modelService.save(dataintegrationLogModel);
+
+            var rowCount = new MutableInt();
+            var countedRows = Iterators.transform(siteRows, row -> {
+                rowCount.increment();
+                return row;
+            });
+            try {
+                return importRows(itemType, isMoveFile, isSync, countedRows, importProcessType, siteModel, null, partition.rejectedRowWriter);
+            } finally {
+                dataintegrationLogModel.setCount(rowCount.intValue());
+            }
+        });
+
+        results.forEach((siteCode, isSuccessPair) -> {
+            //a partition failing before its log is created has no log...
+            var partition = partitions.computeIfAbsent(siteCode, code -> new CsvImport(modelService.create(DataIntegrationLogModel.class), null));
+            partition.feedName = siteCode;
+            partition.isSuccessPair = closeRejectedRows(isSuccessPair, partition);
+            csvImport.partitions.add(partition);
+        });
+        return resultOf(csvImport.partitions);
+    }
+
+    /**
+     * @return log model of the interrupted import or the given new one when it can not be found
+     */
+    private DataIntegrationLogModel findLogModel(String code, DataIntegrationLogModel dataintegrationLogModel) {
+        if (StringUtils.isEmpty(code)) {
+            return dataintegrationLogModel;
+        }
+        var query = new HashMap<>();
+        query.put("code", code);
+        try {
+            return searchService.searchSingleResult(DataIntegrationLogModel.class, query, SearchOperator.AND);
+        } catch (ModelNotFoundException e) {
+            log.warn("Log {} of the interrupted import could not be found, a new log will be created", code);
+            return dataintegrationLogModel;
+        }
+    }
+
+    /**
+     * @param rejectedRowWriter failing rows are written to it instead of failing the import, {@code null} when the
+     *                          import stops at the first failing row
+     */
+    private Pair<Boolean, String> importRows(Class itemType, boolean isMoveFile, boolean isSync, Iterator<Row> rows,
+                                             ImportProcessType importProcessType, SiteModel siteModel, ImportCheckpoint checkpoint,
+                                             RejectedRowWriter rejectedRowWriter) {
+        //reading the rows is measured as parse time of the import...
+        rows = importMetrics.timeParse(rows, importMetrics.tags(itemType, siteModel, importProcessType));
+        if (isSync) {
+            //every row must be seen to find the missing records, an interrupted sync is imported from the beginning...
+            return importService.syncRows(itemType, rows, siteModel, committedRows -> {
+            });
+        }
+        //failing rows are skipped chunk by chunk, so continue on error imports are always streamed...
+        var isContinueOnError = Objects.nonNull(rejectedRowWriter) && !Objects.equals(ImportProcessType.FILE, importProcessType);
+        if (BooleanUtils.isTrue(streamingEnabled) || isContinueOnError) {
+            if (Objects.equals(ImportProcessType.FILE, importProcessType)) {
+                return mediaImportService.importRows(itemType, isMoveFile, rows);
+            }
+            BiConsumer<Row, String> rejectedRows = isContinueOnError ? rejectedRowWriter::reject : null;
+            if (Objects.isNull(checkpoint)) {
+                return importService.importRows(itemType, rows, importProcessType, siteModel, committedRows -> {
+                }, rejectedRows);
+            }
+
+            //rows committed before an interruption are not imported again...
+            var offset = checkpoint.getOffset();
+            Iterators.advance(rows, offset);
+            return importService.importRows(itemType, rows, importProcessType, siteModel,
+                    committedRows -> checkpoint.commit(offset + committedRows), rejectedRows);
+        }
+
+        //whole file is read and imported at once, an interrupted file is imported from the beginning...
+        List<Row> allRows = Lists.newArrayList(rows);
+        if (Objects.equals(ImportProcessType.FILE, importProcessType)) {
+            return mediaImportService.importRows(itemType, isMoveFile, allRows.iterator());
+        }
+        return importService.importRows(itemType, allRows, importProcessType, siteModel);
+    }
+
+    /**
+     * @param rejectedName name of the feed and its run, e.g. {@code Save_Product.01022024101500000}
+     * @return writer of {@code <rejectedName>.rejected.csv} in the error folder or {@code null} when continue on error is disabled
+     */
+    private RejectedRowWriter rejectedRowWriter(String rejectedName, boolean append) {
+        if (BooleanUtils.isFalse(continueOnError)) {
+            return null;
+        }
+        return new RejectedRowWriter(Path.of(FilenameUtils.separatorsToSystem(StringUtils.join(errorFolderPath, rejectedName, REJECTED_EXTENSION))), append);
+    }
+
+    /**
+     * Closes the rejected rows of the import, the result tells where they are written.
+     */
+    private Pair<Boolean, String> closeRejectedRows(Pair<Boolean, String> isSuccessPair, CsvImport csvImport) {
+        var rejectedRowWriter = csvImport.rejectedRowWriter;
+        if (Objects.isNull(rejectedRowWriter)) {
+            return isSuccessPair;
+        }
+        try {
+            rejectedRowWriter.close();
+        } catch (IOException e) {
+            log.error("Rejected rows file {} could not be closed...{}", rejectedRowWriter.getPath(), ExceptionUtils.getMessage(e));
+        }
+        if (!csvImport.hasRejectedRows()) {
+            return isSuccessPair;
+        }
+        return new ImmutablePair<>(isSuccessPair.getKey(), String.format("%s. %s rejected rows are written to %s",
+                isSuccessPair.getValue(), rejectedRowWriter.getCount(), rejectedRowWriter.getPath()));
+    }
+
+    /**
+     * State of a csv import which is needed after the rows are imported.
+     */
+    private static class CsvImport {
+
+        private DataIntegrationLogModel dataintegrationLogModel;
+        private ImportCheckpoint checkpoint;
+        private String feedName;
+        //run of the feed, date prefix of the processing folder or the log code...
+        private String runName;
+        private String rejectedName;
+        private Pair<Boolean, String> isSuccessPair;
+        //imports of the sites when the rows are partitioned by site...
+        private final List<CsvImport> partitions = new ArrayList<>();
+        private RejectedRowWriter rejectedRowWriter;
+        private boolean isSiteModel;
+        private boolean isValid;
+
+        private CsvImport(DataIntegrationLogModel dataintegrationLogModel, ImportCheckpoint checkpoint) {
+            this.dataintegrationLogModel = dataintegrationLogModel;
+            this.checkpoint = checkpoint;
+        }
+
+        private boolean hasRejectedRows() {
+            return Objects.nonNull(rejectedRowWriter) && rejectedRowWriter.getCount() > 0;
+        }
+    }
 }
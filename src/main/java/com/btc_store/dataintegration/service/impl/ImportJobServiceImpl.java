@@ -0,0 +1,254 @@
+package com.btc_store.dataintegration.service.impl;
+
+import com.btc_store.dataintegration.data.ImportJobData;
+import com.btc_store.dataintegration.job.ImportJob;
+import com.btc_store.dataintegration.service.ImportJobService;
+import com.btc_store.dataintegration.service.JsonImportService;
+import com.btc_store.domain.enums.DataIntegrationStatus;
+import com.btc_store.domain.enums.SearchOperator;
+import com.btc_store.domain.model.custom.dataintegration.DataIntegrationLogModel;
+import com.btc_store.service.ModelService;
+import com.btc_store.service.SearchService;
+import com.btc_store.service.exception.model.ModelNotFoundException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import util.StoreClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs json imports on a bounded pool. The body is spooled to disk first, so the request ends as soon as the upload
+ * does and the import does not depend on the client connection. Jobs are not run again after a restart, the jobs
+ * left queued or running are failed on startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private static final String SPOOL_EXTENSION = ".json";
+    private static final String INTERRUPTED_DESCRIPTION = "Import job was interrupted by a restart, it must be submitted again";
+
+    @Value("${data.import.async.pool.size}")
+    private int poolSize;
+
+    @Value("${data.import.async.queue.capacity}")
+    private int queueCapacity;
+
+    @Value("${csv.file.upload.folder.path}")
+    private String defaultUploadPath;
+
+    //queued and running jobs are never evicted, their log model has no progress until they finish...
+    private final Map<String, ImportJob> runningJobs = new ConcurrentHashMap<>();
+    //finished jobs are answered from the log model once they leave the cache...
+    private final Cache<String, ImportJob> finishedJobs = CacheBuilder.newBuilder().expireAfterWrite(Duration.ofHours(6)).build();
+    private ThreadPoolExecutor threadPoolExecutor;
+    private ExecutorService executorService;
+
+    protected final JsonImportService jsonImportService;
+    protected final ModelService modelService;
+    protected final SearchService searchService;
+
+    @PostConstruct
+    public void init() {
+        threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("import-job-"));
+        //user of the request is kept on the job thread...
+        executorService = new DelegatingSecurityContextExecutorService(threadPoolExecutor);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Logs of the jobs which were queued or running when the application stopped are failed, so they are not reported as
+     * processing forever, and their bodies are deleted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        var folder = jobsFolder();
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        try (var spoolFiles = Files.newDirectoryStream(folder, "*" + SPOOL_EXTENSION)) {
+            for (var spoolFile : spoolFiles) {
+                var code = StringUtils.removeEnd(spoolFile.getFileName().toString(), SPOOL_EXTENSION);
+                //jobs submitted since the start are running...
+                if (Objects.nonNull(findJob(code))) {
+                    continue;
+                }
+                try {
+                    var dataintegrationLogModel = findLogModel(code);
+                    if (DataIntegrationStatus.PROCESSING.equals(dataintegrationLogModel.getStatus())) {
+                        dataintegrationLogModel.setStatus(DataIntegrationStatus.FAIL);
+                        dataintegrationLogModel.setEndDate(new Date());
+                        dataintegrationLogModel.setDescription(INTERRUPTED_DESCRIPTION);
+                        modelService.save(dataintegrationLogModel);
+                    }
+                    log.warn("Import job {} was interrupted, its log is failed", code);
+                } catch (ModelNotFoundException e) {
+                    log.warn("Log of interrupted import job {} could not be found", code);
+                } catch (Exception e) {
+                    log.error("Log of interrupted import job {} could not be saved...{}", code, ExceptionUtils.getMessage(e));
+                }
+                deleteSpoolFile(spoolFile);
+            }
+        } catch (IOException e) {
+            log.error("Interrupted import jobs could not be read...{}", ExceptionUtils.getMessage(e));
+        }
+    }
+
+    @Override
+    public ImportJobData submit(String processType, Class itemClass, InputStream body) throws IOException {
+        if (threadPoolExecutor.getQueue().remainingCapacity() == 0) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Import queue is full, try again later");
+        }
+
+        var code = UUID.randomUUID().toString();
+        var folder = jobsFolder();
+        Files.createDirectories(folder);
+        var spoolFile = folder.resolve(code + SPOOL_EXTENSION);
+        Files.copy(body, spoolFile);
+
+        var dataintegrationLogModel = modelService.create(DataIntegrationLogModel.class);
+        dataintegrationLogModel.setCode(code);
+        dataintegrationLogModel.setItemType(StoreClassUtils.getSimpleName(itemClass));
+        dataintegrationLogModel.setStatus(DataIntegrationStatus.PROCESSING);
+        dataintegrationLogModel.setStartDate(new Date());
+        modelService.save(dataintegrationLogModel);
+
+        var job = new ImportJob(code, StoreClassUtils.getSimpleName(itemClass));
+        runningJobs.put(code, job);
+        try {
+            executorService.execute(() -> run(job, processType, itemClass, spoolFile, dataintegrationLogModel));
+        } catch (RejectedExecutionException e) {
+            deleteSpoolFile(spoolFile);
+            fail(job, dataintegrationLogModel, "Import queue is full, try again later");
+            retire(job);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Import queue is full, try again later");
+        }
+        log.info("Import job {} of {} is queued", code, job.getItemType());
+        return toData(job);
+    }
+
+    @Override
+    public ImportJobData getJob(String code) {
+        var job = findJob(code);
+        if (Objects.nonNull(job)) {
+            return toData(job);
+        }
+
+        DataIntegrationLogModel dataintegrationLogModel;
+        try {
+            dataintegrationLogModel = findLogModel(code);
+        } catch (ModelNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job " + code + " is not found");
+        }
+        var data = new ImportJobData();
+        data.setCode(code);
+        data.setItemType(dataintegrationLogModel.getItemType());
+        data.setStatus(dataintegrationLogModel.getStatus());
+        data.setProcessedRows(Objects.isNull(dataintegrationLogModel.getCount()) ? 0 : dataintegrationLogModel.getCount());
+        data.setStartDate(dataintegrationLogModel.getStartDate());
+        data.setEndDate(dataintegrationLogModel.getEndDate());
+        data.setDescription(dataintegrationLogModel.getDescription());
+        if (Objects.nonNull(data.getStartDate()) && Objects.nonNull(data.getEndDate())
+                && data.getEndDate().after(data.getStartDate())) {
+            data.setRowsPerSecond(data.getProcessedRows() * 1000d / (data.getEndDate().getTime() - data.getStartDate().getTime()));
+        }
+        return data;
+    }
+
+    private ImportJob findJob(String code) {
+        var job = runningJobs.get(code);
+        return Objects.nonNull(job) ? job : finishedJobs.getIfPresent(code);
+    }
+
+    /**
+     * Finished job is moved to the cache, it expires from there.
+     */
+    private void retire(ImportJob job) {
+        finishedJobs.put(job.getCode(), job);
+        runningJobs.remove(job.getCode());
+    }
+
+    private DataIntegrationLogModel findLogModel(String code) {
+        var query = new HashMap<>();
+        query.put("code", code);
+        return searchService.searchSingleResult(DataIntegrationLogModel.class, query, SearchOperator.AND);
+    }
+
+    private Path jobsFolder() {
+        return Path.of(StringUtils.join(defaultUploadPath, "/jobs/")).normalize();
+    }
+
+    private void run(ImportJob job, String processType, Class itemClass, Path spoolFile, DataIntegrationLogModel dataintegrationLogModel) {
+        log.info("Import job {} of {} is started", job.getCode(), job.getItemType());
+        try (var body = Files.newInputStream(spoolFile)) {
+            var isSuccessPair = jsonImportService.importJson(processType, itemClass, body, dataintegrationLogModel, job::setProcessedRows);
+            job.finish(isSuccessPair.getKey() ? DataIntegrationStatus.SUCCESS : DataIntegrationStatus.FAIL, isSuccessPair.getValue());
+        } catch (Exception e) {
+            log.error("Import job {} failed...{}", job.getCode(), ExceptionUtils.getMessage(e));
+            fail(job, dataintegrationLogModel, ExceptionUtils.getMessage(e));
+        } finally {
+            deleteSpoolFile(spoolFile);
+            retire(job);
+        }
+        log.info("Import job {} of {} is finished with {} rows", job.getCode(), job.getItemType(), job.getProcessedRows());
+    }
+
+    private void fail(ImportJob job, DataIntegrationLogModel dataintegrationLogModel, String description) {
+        job.finish(DataIntegrationStatus.FAIL, description);
+        try {
+            dataintegrationLogModel.setStatus(DataIntegrationStatus.FAIL);
+            dataintegrationLogModel.setEndDate(job.getEndDate());
+            dataintegrationLogModel.setDescription(description);
+            modelService.save(dataintegrationLogModel);
+        } catch (Exception e) {
+            log.error("Log of import job {} could not be saved...{}", job.getCode(), ExceptionUtils.getMessage(e));
+        }
+    }
+
+    private void deleteSpoolFile(Path spoolFile) {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.error("Body of import job {} could not be deleted...{}", spoolFile, ExceptionUtils.getMessage(e));
+        }
+    }
+
+    private ImportJobData toData(ImportJob job) {
+        var data = new ImportJobData();
+        data.setCode(job.getCode());
+        data.setItemType(job.getItemType());
+        data.setStatus(job.getStatus());
+        data.setProcessedRows(job.getProcessedRows());
+        data.setRowsPerSecond(job.getRowsPerSecond());
+        data.setStartDate(job.getStartDate());
+        data.setEndDate(job.getEndDate());
+        data.setDescription(job.getDescription());
+        return data;
+    }
+}
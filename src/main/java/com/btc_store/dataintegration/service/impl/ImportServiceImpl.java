@@ -1,7 +1,20 @@
 package com.btc_store.dataintegration.service.impl;
 
+import com.btc_store.dataintegration.binder.PropertyBinders;
+import com.btc_store.dataintegration.delta.RowFingerprintStore;
 import com.btc_store.dataintegration.enums.MergeStrategyEnum;
+import com.btc_store.dataintegration.lookup.LookupKey;
+import com.btc_store.dataintegration.metrics.ImportMetrics;
+import com.btc_store.dataintegration.lookup.ReferenceDictionary;
+import com.btc_store.dataintegration.pipeline.ImportPipeline;
+import com.btc_store.dataintegration.plan.ColumnPlan;
+import com.btc_store.dataintegration.plan.ImportPlan;
+import com.btc_store.dataintegration.plan.ImportPlanCache;
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.dataintegration.row.Rows;
 import com.btc_store.dataintegration.service.ImportService;
+import com.btc_store.dataintegration.service.ModelLookupService;
+import com.btc_store.dataintegration.sync.SeenIdSet;
 import com.btc_store.domain.enums.ImportProcessType;
 import com.btc_store.domain.enums.SearchOperator;
 import com.btc_store.domain.model.custom.SiteModel;
@@ -14,37 +27,39 @@ import com.btc_store.service.exception.StoreException;
 import com.btc_store.service.exception.StoreRuntimeException;
 import com.btc_store.service.exception.model.ModelNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import constant.MessageConstant;
+import io.micrometer.core.instrument.Tags;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.commons.lang3.math.NumberUtils;
-import org.apache.commons.lang3.time.DateUtils;
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionSystemException;
-import util.StoreClassUtils;
 import util.Messages;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
-import java.math.BigDecimal;
 import java.text.ParseException;
 import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
-
-import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SITE_MODEL;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -53,11 +68,7 @@ public class ImportServiceImpl implements ImportService {
 
     private static final String COLON = ":";
     private static final String SEMICOLON = ";";
-    private static final String UNIQUE_POINTER = "[unique]";
-    private static final String LANG_POINTER = "[lang=";
-    private static final String CODE_POINTER = "(code)";
-    private static final String[] datePatterns = new String[]{"dd.MM.yyyy", "ddMMyyyy", "yyyyMMdd", "dd.MM.yyyy HH:mm",
-            "dd.MM.yyyy HH:mm:ss", "dd/MM/yyyy", "dd/MM/yyyy HH:mm", "dd/MM/yyyy HH:mm:ss", "yyyyMMddHHmmss", "yyyyMMdd HH:mm:ss"};
+    private static final String SITE = "site";
 
 
     protected final ModelService modelService;
@@ -65,215 +76,644 @@ public class ImportServiceImpl implements ImportService {
     protected final MessageSource messageSource;
     protected final SearchService searchService;
     protected final ObjectMapper objectMapper;
+    protected final ImportPlanCache importPlanCache;
+    protected final ModelLookupService modelLookupService;
+    protected final RowFingerprintStore rowFingerprintStore;
+    protected final ImportMetrics importMetrics;
+
+    @Value("${csv.import.chunk.size}")
+    private int chunkSize;
+
+    @Value("${csv.import.delta.enabled}")
+    private boolean deltaEnabled;
+
+    @Value("${csv.import.error.limit}")
+    private int errorLimit;
+
+    @Value("${csv.import.sync.soft.delete.field}")
+    private String syncSoftDeleteField;
+
+    @Value("${csv.import.pipeline.enabled}")
+    private boolean pipelineEnabled;
+
+    @Value("${csv.import.pipeline.workers}")
+    private int pipelineWorkers;
+
+    @Value("${csv.import.pipeline.queue.capacity}")
+    private int pipelineQueueCapacity;
 
 
     @Override
     public Pair<Boolean, String> importData(Class itemType, List<Map<String, String>> data, ImportProcessType importProcessType, SiteModel siteModel) {
-        Map<String, String> errorRow = null;
+        return importRows(itemType, Rows.of(data), importProcessType, siteModel);
+    }
+
+    @Override
+    public Pair<Boolean, String> importData(Class itemType, Iterator<Map<String, String>> rows, ImportProcessType importProcessType, SiteModel siteModel) {
+        return importData(itemType, rows, importProcessType, siteModel, committedRows -> {
+        });
+    }
+
+    @Override
+    public Pair<Boolean, String> importData(Class itemType, Iterator<Map<String, String>> rows, ImportProcessType importProcessType, SiteModel siteModel,
+                                            IntConsumer committedRows) {
+        return importData(itemType, Rows.of(rows), importProcessType, siteModel, committedRows, null, null, null);
+    }
+
+    @Override
+    public Pair<Boolean, String> importData(Class itemType, Iterator<Map<String, String>> rows, ImportProcessType importProcessType, SiteModel siteModel,
+                                            IntConsumer committedRows, BiConsumer<Map<String, String>, String> rejectedRows) {
+        return importRows(itemType, Rows.of(rows), importProcessType, siteModel, committedRows,
+                Objects.isNull(rejectedRows) ? null : (row, reason) -> rejectedRows.accept(row.toMap(), reason));
+    }
+
+    @Override
+    public Pair<Boolean, String> syncData(Class itemType, Iterator<Map<String, String>> rows, SiteModel siteModel, IntConsumer committedRows) {
+        return syncRows(itemType, Rows.of(rows), siteModel, committedRows);
+    }
+
+    @Override
+    public Pair<Boolean, String> importRows(Class itemType, List<Row> data, ImportProcessType importProcessType, SiteModel siteModel) {
+        var session = new ImportSession(itemType, siteModel, importProcessType, null);
         var isAllDataValid = false;
+        var isCommitted = false;
+        var startTime = System.nanoTime();
         try {
+            //nothing is written before every row is converted, so a list import stays all or nothing...
             List<ItemModel> models = new ArrayList<>();
+            for (var chunk : Iterables.partition(data, chunkSize)) {
+                models.addAll(session.convert(chunk));
+            }
+            isAllDataValid = true;
+            log.info("Starting import to database...");
+            persist(models, importProcessType, session.tags);
+            session.committed();
+            isCommitted = true;
+            log.info("{} of {} datas have been imported successfully...", data.size(), itemType);
+            return new ImmutablePair<>(Boolean.TRUE, String.format("%s of %s data has been imported successfully", data.size(), itemType));
 
-            for (Map<String, String> row : data) {
-                //trim values
-                for (var rowValue : row.entrySet()) {
-                    row.put(rowValue.getKey(), StringUtils.trim(rowValue.getValue()));
-                }
-                errorRow = row;
+        } catch (Throwable e) {
+            return errorResult(e, isAllDataValid, session.errorRow, StringUtils.EMPTY);
+        } finally {
+            session.releaseFingerprints();
+            recordRows(session.tags, startTime, data.size(), isCommitted ? data.size() : 0, session.skippedRows.get());
+        }
 
+    }
 
-                ItemModel model;
-                var isNew = false;
-                var uniqueFields = row.keySet().stream().filter(p -> StringUtils.contains(p, UNIQUE_POINTER)).collect(Collectors.toSet());
-                var uniqueMapForQuery = new HashMap<>();
-                var tempObj = modelService.create(itemType);
-                for (var uniqueField : uniqueFields) {
-
-                    // if relation field is unique...
-                    if (StringUtils.contains(uniqueField, "(")) {
-                        var relationType = StringUtils.split(uniqueField, "(")[0];
-                        var contents = StringUtils.substringBetween(uniqueField, "(", ")").split(COLON);
-
-                        var relationContents = row.get(uniqueField).split(SEMICOLON);
-                        var map = new HashMap<>();
-                        for (String rel : relationContents) {
-                            if (StringUtils.split(rel, COLON).length != contents.length) {
-                                throw new IllegalArgumentException("Parameter count can not be matched.");
-                            }
+    @Override
+    public Pair<Boolean, String> importRows(Class itemType, Iterator<Row> rows, ImportProcessType importProcessType, SiteModel siteModel,
+                                            IntConsumer committedRows, BiConsumer<Row, String> rejectedRows) {
+        return importData(itemType, rows, importProcessType, siteModel, committedRows, null, null, rejectedRows);
+    }
 
+    @Override
+    public Pair<Boolean, String> syncRows(Class itemType, Iterator<Row> rows, SiteModel siteModel, IntConsumer committedRows) {
+        //a misspelled soft delete field fails the sync before any row is committed...
+        if (StringUtils.isNotEmpty(syncSoftDeleteField)) {
+            try {
+                PropertyBinders.get(itemType, syncSoftDeleteField);
+            } catch (NoSuchFieldException e) {
+                return errorResult(e, true, null, StringUtils.EMPTY);
+            }
+        }
 
-                            for (int i = 0; i < contents.length; i++) {
-                                map.put(contents[i], StringUtils.split(rel, COLON)[i]);
-                            }
+        var seenIds = new SeenIdSet();
+        var seenRowKeys = new SeenIdSet();
+        var isSuccessPair = importData(itemType, rows, ImportProcessType.SAVE, siteModel, committedRows, seenIds, seenRowKeys, null);
+        if (BooleanUtils.isFalse(isSuccessPair.getKey())) {
+            log.warn("Sync of {} failed, records missing from the feed are kept", itemType.getSimpleName());
+            return isSuccessPair;
+        }
+        if (seenIds.isEmpty()) {
+            log.warn("Sync feed of {} has no rows, records are kept", itemType.getSimpleName());
+            return isSuccessPair;
+        }
 
-                        }
+        try {
+            var removed = removeUnseen(itemType, siteModel, seenIds, seenRowKeys);
+            log.info("{} records of {} missing from the sync feed have been removed...", removed, itemType);
+            return new ImmutablePair<>(Boolean.TRUE, isSuccessPair.getValue() + String.format(", %s missing records have been removed", removed));
+        } catch (Throwable e) {
+            return errorResult(e, true, null, "Every row was committed but missing records could not be removed. ");
+        }
+    }
 
-                        var isNullRelation = map.keySet().stream().anyMatch(p -> StringUtils.isEmpty((String) map.get(p)) || StringUtils.equalsIgnoreCase((String) map.get(p), "null"));
+    /**
+     * @param seenIds      identifiers of the committed models are added when the import is a sync, otherwise {@code null}
+     * @param seenRowKeys  fingerprint keys of the committed rows are added when the import is a sync, otherwise {@code null}
+     * @param rejectedRows failing rows are given with their reason instead of failing the import, {@code null} when the
+     *                     first failing row fails the import
+     */
+    private Pair<Boolean, String> importData(Class itemType, Iterator<Row> rows, ImportProcessType importProcessType,
+                                             SiteModel siteModel, IntConsumer committedRows, SeenIdSet seenIds,
+                                             SeenIdSet seenRowKeys, BiConsumer<Row, String> rejectedRows) {
+        //failing rows are retried one by one, which the pipeline can not do...
+        if (BooleanUtils.isTrue(pipelineEnabled) && Objects.isNull(rejectedRows)) {
+            return importPipelined(itemType, rows, importProcessType, siteModel, committedRows, seenIds, seenRowKeys);
+        }
 
-                        if (!StringUtils.equals(relationType, "site")) {
-                            map.put("site", siteModel);
-                        }
-                        if (isNullRelation) {
-                            uniqueMapForQuery.put(relationType, null);
+        var session = new ImportSession(itemType, siteModel, importProcessType, seenRowKeys);
+        var isAllDataValid = false;
+        var count = 0;
+        var rejected = new MutableInt();
+        var readRows = new AtomicInteger();
+        var startTime = System.nanoTime();
+        try {
+            //every chunk is converted and committed on its own, so only one chunk of rows is kept in memory...
+            var chunks = Iterators.partition(countRows(rows, readRows), chunkSize);
+            while (chunks.hasNext()) {
+                isAllDataValid = false;
+                var chunk = chunks.next();
+                if (Objects.isNull(rejectedRows)) {
+                    var models = session.convert(chunk);
+                    isAllDataValid = true;
+                    restore(itemType, models, seenIds);
+                    persist(models, importProcessType, session.tags);
+                    addSeenIds(models, seenIds);
+                    session.committed();
+                } else {
+                    isAllDataValid = true;
+                    importChunk(session, chunk, importProcessType, rejectedRows, rejected);
+                }
+                count += chunk.size();
+                committedRows.accept(count);
+                log.info("{} rows of {} have been committed...", count, itemType.getSimpleName());
+            }
+            if (rejected.intValue() > 0) {
+                log.warn("{} of {} datas have been imported, {} rows were rejected...", count - rejected.intValue(), itemType, rejected);
+                return new ImmutablePair<>(Boolean.TRUE, String.format("%s of %s data has been imported successfully, %s rows were rejected",
+                        count - rejected.intValue(), itemType, rejected));
+            }
+            log.info("{} of {} datas have been imported successfully...", count, itemType);
+            return new ImmutablePair<>(Boolean.TRUE, String.format("%s of %s data has been imported successfully", count, itemType));
 
-                        } else {
-                            Class tclass = PropertyUtils.getReadMethod(getPropertyDescriptor(tempObj, relationType)).getReturnType();
-                            uniqueMapForQuery.put(StringUtils.remove(StringUtils.remove(uniqueField, UNIQUE_POINTER), CODE_POINTER), searchService.searchSingleResult(tclass, map, SearchOperator.AND));
-                        }
+        } catch (Throwable e) {
+            return errorResult(e, isAllDataValid, session.errorRow, count > 0 ? count + " rows were committed before the error. " : StringUtils.EMPTY);
+        } finally {
+            session.releaseFingerprints();
+            recordRows(session.tags, startTime, readRows.get(), count - rejected.intValue(), session.skippedRows.get());
+        }
+    }
 
-                    } else {
-                        var fieldName = clearFieldName(uniqueField);
-                        uniqueMapForQuery.put(fieldName, convertWrapperType(getPropertyDescriptor(tempObj, StringUtils.remove(uniqueField, UNIQUE_POINTER)), null, MergeStrategyEnum.MERGE, row.get(uniqueField)));
-                    }
+    /**
+     * Imports the chunk as a whole; when it fails, its rows are imported one by one and the failing ones are rejected.
+     * Import fails once more rows than the error limit are rejected.
+     */
+    private void importChunk(ImportSession session, List<Row> chunk, ImportProcessType importProcessType,
+                             BiConsumer<Row, String> rejectedRows, MutableInt rejected) {
+        try {
+            persist(session.convert(chunk), importProcessType, session.tags);
+            session.committed();
+            return;
+        } catch (Exception | NoSuchFieldError e) {
+            session.discard();
+            log.warn("Chunk of {} rows could not be imported, rows will be imported one by one...{}", chunk.size(), exceptionMessage(e));
+        }
 
+        for (var row : chunk) {
+            try {
+                persist(session.convert(List.of(row)), importProcessType, session.tags);
+                session.committed();
+            } catch (Exception | NoSuchFieldError e) {
+                session.discard();
+                rejectedRows.accept(row, exceptionMessage(e));
+                rejected.increment();
+                if (rejected.intValue() > errorLimit) {
+                    throw new IllegalStateException(String.format("%s rows were rejected, error limit %s is exceeded. Last error : %s",
+                            rejected, errorLimit, exceptionMessage(e)));
+                }
+            }
+        }
+    }
 
+    /**
+     * Reading, conversion and persistence run as concurrent stages, see {@link ImportPipeline}. Rows of the same unique
+     * values are converted in file order, but a row referencing a record created by an other row of the same file may
+     * be converted before that record is committed.
+     */
+    private Pair<Boolean, String> importPipelined(Class itemType, Iterator<Row> rows, ImportProcessType importProcessType,
+                                                  SiteModel siteModel, IntConsumer committedRows, SeenIdSet seenIds,
+                                                  SeenIdSet seenRowKeys) {
+        var committed = new AtomicInteger();
+        var invalidRow = new AtomicReference<Row>();
+        var isPersistFailed = new AtomicBoolean();
+        var readerSession = new ImportSession(itemType, siteModel, importProcessType, seenRowKeys);
+        var readRows = new AtomicInteger();
+        var startTime = System.nanoTime();
+        Supplier<ImportPipeline.Converter<Row, ItemModel>> converters = () -> {
+            var session = new ImportSession(readerSession);
+            return new ImportPipeline.Converter<>() {
+                @Override
+                public List<ItemModel> convert(List<Row> chunk) throws Exception {
+                    try {
+                        return session.convert(chunk);
+                    } catch (Exception e) {
+                        invalidRow.compareAndSet(null, session.errorRow);
+                        throw e;
+                    }
                 }
 
-                try {
-                    model = searchService.searchSingleResult(itemType, uniqueMapForQuery, SearchOperator.AND);
-                } catch (ModelNotFoundException e) {
-                    model = modelService.create(itemType);
-                    isNew = true;
-                } catch (Exception e) {
-                    log.error("Error occurred while data finding on database...Error Row {}::Error Message {}", convertObjectToJson(errorRow), ExceptionUtils.getMessage(e));
-                    throw new Exception("Error occurred while data was imported...Error Row  " + convertObjectToJson(errorRow) + " Error Message : " + ExceptionUtils.getMessage(e));
+                @Override
+                public void committed() {
+                    session.committed();
                 }
+            };
+        };
 
-                final Set<String> relations = row.keySet().stream().filter(p -> p.contains("(")).collect(Collectors.toSet());
-                final Collection<String> notRelations = CollectionUtils.removeAll(row.keySet().stream().collect(Collectors.toSet()), relations);
+        try {
+            var count = new ImportPipeline<Row, ItemModel>(pipelineWorkers, chunkSize, pipelineQueueCapacity).run(countRows(rows, readRows),
+                    readerSession::uniqueValues, converters,
+                    models -> {
+                        try {
+                            restore(itemType, models, seenIds);
+                            persist(models, importProcessType, readerSession.tags);
+                            addSeenIds(models, seenIds);
+                        } catch (RuntimeException e) {
+                            isPersistFailed.set(true);
+                            throw e;
+                        }
+                    },
+                    committedRows.andThen(committed::set));
+            log.info("{} of {} datas have been imported successfully...", count, itemType);
+            return new ImmutablePair<>(Boolean.TRUE, String.format("%s of %s data has been imported successfully", count, itemType));
 
-                //relations...
-                if (CollectionUtils.isNotEmpty(relations)) {
-                    if (BooleanUtils.isFalse(isNew)) {
-                        var relationsTypes = relations.stream().map(r -> StringUtils.split(r, "(")[0]).collect(Collectors.toSet());
-                        model = searchService.searchSingleResultRelation(model, relationsTypes.stream().toArray(String[]::new));
-                    }
+        } catch (Throwable e) {
+            return errorResult(e, isPersistFailed.get(), invalidRow.get(),
+                    committed.get() > 0 ? committed.get() + " rows were committed before the error. " : StringUtils.EMPTY);
+        } finally {
+            //sessions of the workers share the fingerprints of the reader...
+            readerSession.releaseFingerprints();
+            recordRows(readerSession.tags, startTime, readRows.get(), committed.get(), readerSession.skippedRows.get());
+        }
+    }
 
-                    for (String relation : relations) {
-                        if (StringUtils.isEmpty(row.get(relation)) || StringUtils.equalsIgnoreCase(row.get(relation), "null")) {
-                            continue;
-                        }
-                        String relationType = StringUtils.split(relation, "(")[0];
-                        String[] contents = StringUtils.substringBetween(relation, "(", ")").split(COLON);
+    private void persist(List<ItemModel> models, ImportProcessType importProcessType, Tags tags) {
+        //every row of a chunk may be skipped by delta import...
+        if (CollectionUtils.isEmpty(models)) {
+            return;
+        }
+        importMetrics.phase(ImportMetrics.PHASE_PERSIST, tags).record(() -> {
+            if (ImportProcessType.SAVE.equals(importProcessType)) {
+                modelService.saveAll(models);
+            } else {
+                modelService.removeAll(models);
+            }
+        });
+    }
 
-                        var relationContents = row.get(relation).split(SEMICOLON);
-                        var relationMappingParams = new ArrayList<HashMap>();
+    private Iterator<Row> countRows(Iterator<Row> rows, AtomicInteger readRows) {
+        return Iterators.transform(rows, row -> {
+            readRows.incrementAndGet();
+            return row;
+        });
+    }
 
-                        for (String rel : relationContents) {
-                            if (StringUtils.split(rel, COLON).length != contents.length) {
-                                throw new IllegalArgumentException("Parameter count can not be matched.");
-                            }
+    /**
+     * @param committedRows rows of the committed chunks, rows of them skipped by delta import are not counted as imported
+     */
+    private void recordRows(Tags tags, long startTime, int readRows, int committedRows, int skippedRows) {
+        var importedRows = Math.max(0, committedRows - skippedRows);
+        importMetrics.rows(tags, importedRows, skippedRows, Math.max(0, readRows - importedRows - skippedRows),
+                Duration.ofNanos(System.nanoTime() - startTime));
+    }
 
-                            var map = new HashMap<>();
-                            for (int i = 0; i < contents.length; i++) {
-                                map.put(contents[i], StringUtils.split(rel, COLON)[i]);
-                            }
+    private void addSeenIds(List<ItemModel> models, SeenIdSet seenIds) {
+        if (Objects.nonNull(seenIds)) {
+            models.forEach(model -> seenIds.add(modelLookupService.identifierOf(model)));
+        }
+    }
 
-                            relationMappingParams.add(map);
-                        }
+    /**
+     * Records of a sync feed are not deleted, a record soft deleted by a previous sync is restored when it is given.
+     * The soft delete field is validated before the sync starts.
+     */
+    private void restore(Class itemType, List<ItemModel> models, SeenIdSet seenIds) {
+        if (Objects.isNull(seenIds) || StringUtils.isEmpty(syncSoftDeleteField)) {
+            return;
+        }
+        var softDeleteBinder = PropertyBinders.find(itemType, syncSoftDeleteField);
+        models.forEach(model -> softDeleteBinder.set(model, Boolean.FALSE));
+    }
 
-                        var propertyDescription = getPropertyDescriptor(model, relationType);
-                        String typeName = PropertyUtils.getReadMethod(propertyDescription).getGenericReturnType().getTypeName();
-                        //relation is set,collection,list...
-                        if (StringUtils.startsWith(typeName, "java")) {
+    /**
+     * Records are read page by page in identifier order and the ones which were not committed by the feed are removed,
+     * or soft deleted when a soft delete field is configured. Records which are already soft deleted are not read.
+     * Fingerprints of the rows which were not given by the feed are evicted once a record is removed, so a removed
+     * record given again is not skipped as unchanged.
+     *
+     * @return number of removed records
+     */
+    private int removeUnseen(Class itemType, SiteModel siteModel, SeenIdSet seenIds, SeenIdSet seenRowKeys) throws NoSuchFieldException {
+        var params = new HashMap<String, Object>();
+        if (Objects.nonNull(siteModel) && Objects.nonNull(PropertyBinders.find(itemType, SITE))) {
+            params.put(SITE, siteModel);
+        }
+        var softDeleteBinder = StringUtils.isEmpty(syncSoftDeleteField) ? null : PropertyBinders.get(itemType, syncSoftDeleteField);
+        var excludedParams = new HashMap<String, Object>();
+        if (Objects.nonNull(softDeleteBinder)) {
+            excludedParams.put(syncSoftDeleteField, Boolean.TRUE);
+        }
 
+        var removed = 0;
+        Object lastId = null;
+        List<Object> ids;
+        do {
+            ids = modelLookupService.searchIds(itemType, params, excludedParams, lastId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
 
-                            Collection<ItemModel> itemModels = findJavaType(typeName);
-                            MergeStrategyEnum mergeStrategyEnum = MergeStrategyEnum.MERGE;
-                            typeName = StringUtils.substringBetween(typeName, "<", ">");
-                            if (StringUtils.contains(relation, "mode")) {
-                                String mergeMode = StringUtils.remove(StringUtils.split(relation, "[")[1], "]").split("=")[1];
-                                mergeStrategyEnum = MergeStrategyEnum.valueOf(StringUtils.toRootUpperCase(mergeMode));
+            var unseenIds = ids.stream().filter(id -> !seenIds.contains(id)).toList();
+            List<ItemModel> unseenModels = modelLookupService.searchByIds(itemType, unseenIds);
+            if (unseenModels.isEmpty()) {
+                continue;
+            }
+            if (Objects.isNull(softDeleteBinder)) {
+                modelService.removeAll(unseenModels);
+            } else {
+                unseenModels.forEach(model -> softDeleteBinder.set(model, Boolean.TRUE));
+                modelService.saveAll(unseenModels);
+            }
+            removed += unseenModels.size();
+        } while (ids.size() == chunkSize);
 
-                            }
+        if (removed > 0 && BooleanUtils.isTrue(deltaEnabled)) {
+            var fingerprints = rowFingerprintStore.acquire(itemType, siteModel);
+            fingerprints.retain(seenRowKeys::contains);
+            rowFingerprintStore.release(fingerprints);
+        }
+        return removed;
+    }
 
-                            if (MergeStrategyEnum.MERGE.equals(mergeStrategyEnum)) {
+    private Pair<Boolean, String> errorResult(Throwable e, boolean isAllDataValid, Row errorRow, String committedMessage) {
+        if (isAllDataValid) {
+            log.error("Error occurred while data was imported..." + committedMessage + exceptionMessage(e));
+            return new ImmutablePair<>(Boolean.FALSE, "Error occurred while data was imported..." + committedMessage + exceptionMessage(e));
+        } else {
+            log.error("Error occurred ..{}Error Row {}::Error Message {}", committedMessage, convertObjectToJson(errorRow), exceptionMessage(e));
+            return new ImmutablePair<>(Boolean.FALSE, "Error occurred while data was imported..." + committedMessage + "Error Row : " + convertObjectToJson(errorRow) + " Error Message : " + exceptionMessage(e));
+        }
+    }
 
-                                var relationItemModel = (Collection<ItemModel>) PropertyUtils.getSimpleProperty(model, relationType);
-                                itemModels = CollectionUtils.isEmpty(relationItemModel) ? itemModels : relationItemModel;
-                            }
+    /**
+     * Conversion state of one import. Rows are converted chunk by chunk; relation values and unique keys of a chunk are
+     * resolved with bulk queries before its rows are converted.
+     */
+    private class ImportSession {
+
+        private final Class itemType;
+        private final SiteModel siteModel;
+        private final ImportProcessType importProcessType;
+        //fingerprints of the item type and site, null when delta import is disabled...
+        private final RowFingerprintStore.Fingerprints fingerprints;
+        //keys of the committed rows of a sync, null when the import is not a sync...
+        private final SeenIdSet seenRowKeys;
+        //rows skipped as unchanged, shared with the sessions of the pipeline workers...
+        private final AtomicInteger skippedRows;
+        //fingerprints of converted rows, they are kept once the rows are committed...
+        private final Map<Long, Long> pendingFingerprints = new HashMap<>();
+        private final Tags tags;
+        //same record may be given more than once, it is converted on the same model until it is committed...
+        private final Map<LookupKey, ItemModel> modelsByUniqueKey = new HashMap<>();
+        private ImportPlan plan;
+        private Row errorRow;
+
+        /**
+         * @param seenRowKeys sync imports must see every row, unchanged rows are not skipped for them but their
+         *                    fingerprints are kept as usual
+         */
+        private ImportSession(Class itemType, SiteModel siteModel, ImportProcessType importProcessType, SeenIdSet seenRowKeys) {
+            this.itemType = itemType;
+            this.siteModel = siteModel;
+            this.importProcessType = importProcessType;
+            this.seenRowKeys = seenRowKeys;
+            this.skippedRows = new AtomicInteger();
+            this.fingerprints = BooleanUtils.isTrue(deltaEnabled) ? rowFingerprintStore.acquire(itemType, siteModel) : null;
+            this.tags = importMetrics.tags(itemType, siteModel, importProcessType);
+        }
 
+        /**
+         * Session of a pipeline worker, it shares the fingerprints of the given session which releases them.
+         */
+        private ImportSession(ImportSession session) {
+            this.itemType = session.itemType;
+            this.siteModel = session.siteModel;
+            this.importProcessType = session.importProcessType;
+            this.fingerprints = session.fingerprints;
+            this.seenRowKeys = session.seenRowKeys;
+            this.skippedRows = session.skippedRows;
+            this.tags = session.tags;
+        }
 
-                            Class rel = Class.forName(typeName);
+        /**
+         * @return models of the chunk which were not converted by a previous row of this session
+         */
+        private List<ItemModel> convert(List<Row> chunk) throws Exception {
+            chunk = changedRows(chunk);
+            var referenceDictionary = resolveReferences(chunk);
 
-                            for (Map param : relationMappingParams) {
-                                if (!StringUtils.equals(StoreClassUtils.getSimpleName(rel), SITE_MODEL)
-                                        && Objects.nonNull(siteModel)) {
-                                    param.put("site", siteModel);
-                                }
-                                ItemModel itemModel = searchService.searchSingleResult(rel, param, SearchOperator.AND);
-                                itemModels.add(itemModel);
-                            }
+            //unique values of the whole chunk are matched with one query...
+            var uniqueQueries = new ArrayList<Map<String, Object>>(chunk.size());
+            for (var row : chunk) {
+                errorRow = row;
+                uniqueQueries.add(getUniqueQuery(planOf(row), row, siteModel, referenceDictionary));
+            }
+            var uniqueKeys = uniqueQueries.stream().filter(MapUtils::isNotEmpty).map(LookupKey::new)
+                    .filter(k -> !modelsByUniqueKey.containsKey(k)).toList();
+            Map<LookupKey, Optional<ItemModel>> existingModels = CollectionUtils.isEmpty(uniqueKeys) ? Map.of()
+                    : importMetrics.time(ImportMetrics.PHASE_LOOKUP, tags, () -> modelLookupService.searchByKeys((Class<ItemModel>) itemType, uniqueKeys));
 
-                            PropertyUtils.setSimpleProperty(model, relationType, itemModels);
+            var convertStart = System.nanoTime();
+            List<ItemModel> models = new ArrayList<>();
+            for (var rowIndex = 0; rowIndex < chunk.size(); rowIndex++) {
+                var row = chunk.get(rowIndex);
+                errorRow = row;
+                var rowPlan = planOf(row);
 
+                ItemModel model;
+                var isNew = false;
+                var isConverted = false;
+                var uniqueMapForQuery = uniqueQueries.get(rowIndex);
+                var uniqueKey = MapUtils.isEmpty(uniqueMapForQuery) ? null : new LookupKey(uniqueMapForQuery);
+                if (Objects.nonNull(uniqueKey) && modelsByUniqueKey.containsKey(uniqueKey)) {
+                    model = modelsByUniqueKey.get(uniqueKey);
+                    isConverted = true;
+                } else if (Objects.nonNull(uniqueKey) && existingModels.containsKey(uniqueKey)) {
+                    model = existingModels.get(uniqueKey).orElse(null);
+                } else {
+                    model = searchUniqueModel(itemType, uniqueMapForQuery, errorRow);
+                }
+                if (Objects.isNull(model)) {
+                    model = modelService.create(itemType);
+                    isNew = true;
+                }
 
-                        } else {
-                            Class relationClass = Class.forName(typeName);
-
-                            Map queryMap = new HashMap();
-                            //content code,version
-                            for (String ids : contents) {
-                                if (!StringUtils.equals(StoreClassUtils.getSimpleName(relationClass), SITE_MODEL)
-                                        && Objects.nonNull(siteModel)) {
-                                    queryMap.put("site", siteModel);
-                                }
-                                queryMap.put(ids, row.get(relation));
+                //relations...
+                if (CollectionUtils.isNotEmpty(rowPlan.getRelationColumns())) {
+                    if (BooleanUtils.isFalse(isNew) && BooleanUtils.isFalse(isConverted)) {
+                        model = searchService.searchSingleResultRelation(model, rowPlan.getRelationFieldNames());
+                    }
+
+                    for (var relationColumn : rowPlan.getRelationColumns()) {
+                        var relationQueries = getRelationQueries(relationColumn, row.get(relationColumn.getIndex()), siteModel);
+                        if (CollectionUtils.isEmpty(relationQueries)) {
+                            continue;
+                        }
+
+                        //relation is set,collection,list...
+                        if (relationColumn.isCollection()) {
+                            Collection<ItemModel> itemModels = relationColumn.isSetCollection() ? new HashSet<>() : new ArrayList<>();
+                            if (MergeStrategyEnum.MERGE.equals(relationColumn.getMergeStrategy())) {
+                                var relationItemModel = (Collection<ItemModel>) relationColumn.getBinder().get(model);
+                                itemModels = CollectionUtils.isEmpty(relationItemModel) ? itemModels : relationItemModel;
                             }
-                            PropertyUtils.setSimpleProperty(model, relationType, searchService.searchSingleResult(relationClass, queryMap, SearchOperator.AND));
 
+                            for (var relationQuery : relationQueries) {
+                                itemModels.add(referenceDictionary.get(relationColumn.getTargetClass(), relationQuery));
+                            }
+
+                            relationColumn.getBinder().set(model, itemModels);
+
+                        } else {
+                            relationColumn.getBinder().set(model, referenceDictionary.get(relationColumn.getTargetClass(), relationQueries.get(0)));
                         }
+                    }
+                }
+
+                for (var attributeColumn : rowPlan.getAttributeColumns()) {
+                    var binder = attributeColumn.getBinder();
 
+                    if (attributeColumn.isLocalized()) {
+                        binder.set(model, convertLangAttribute((Localized) binder.get(model), attributeColumn.getLocale(), row.get(attributeColumn.getIndex())));
+                        continue;
+                    }
 
+                    binder.set(model, attributeColumn.getConverter().convert(row.get(attributeColumn.getIndex()), model));
+                }
+                if (BooleanUtils.isFalse(isConverted)) {
+                    if (Objects.nonNull(uniqueKey)) {
+                        modelsByUniqueKey.put(uniqueKey, model);
                     }
+                    models.add(model);
                 }
+            }
+            importMetrics.phase(ImportMetrics.PHASE_CONVERT, tags).record(Duration.ofNanos(System.nanoTime() - convertStart));
+            return models;
+        }
 
-                if (CollectionUtils.isNotEmpty(notRelations)) {
-                    for (String notRelation : notRelations) {
+        /**
+         * Committed models are searched again by later chunks instead of being held until the end of the import.
+         */
+        private void committed() {
+            modelsByUniqueKey.clear();
+            errorRow = null;
+            if (Objects.nonNull(fingerprints)) {
+                if (ImportProcessType.SAVE.equals(importProcessType)) {
+                    fingerprints.commit(pendingFingerprints);
+                    if (Objects.nonNull(seenRowKeys)) {
+                        pendingFingerprints.keySet().forEach(seenRowKeys::add);
+                    }
+                } else {
+                    fingerprints.evict(pendingFingerprints.keySet());
+                }
+                pendingFingerprints.clear();
+            }
+        }
 
-                        var fieldName = clearFieldName(notRelation);
+        /**
+         * Forgets the models and fingerprints of a chunk which could not be committed.
+         */
+        private void discard() {
+            modelsByUniqueKey.clear();
+            pendingFingerprints.clear();
+        }
 
-                        if (StringUtils.contains(notRelation, LANG_POINTER)) {
-                            var lang = StringUtils.substringBetween(notRelation, "[", "]").split("=")[1];
-                            PropertyUtils.setSimpleProperty(model, fieldName, convertLangAttribute((Localized) PropertyUtils.getProperty(model, fieldName), Locale.forLanguageTag(lang), row.get(notRelation)));
-                            continue;
-                        }
+        private void releaseFingerprints() {
+            if (Objects.nonNull(fingerprints)) {
+                rowFingerprintStore.release(fingerprints);
+            }
+        }
 
-                        var mergeMode = MergeStrategyEnum.MERGE;
-                        if (StringUtils.contains(notRelation, "[mode=")) {
-                            String mergeType = StringUtils.remove(StringUtils.split(notRelation, "[")[1], "]").split("=")[1];
-                            mergeMode = MergeStrategyEnum.valueOf(StringUtils.toRootUpperCase(mergeType));
+        /**
+         * @return rows of the chunk which are changed since their last import, rows without unique columns are never skipped
+         */
+        private List<Row> changedRows(List<Row> chunk) {
+            if (Objects.isNull(fingerprints)) {
+                return chunk;
+            }
 
-                        }
+            var changedRows = new ArrayList<Row>(chunk.size());
+            for (var row : chunk) {
+                errorRow = row;
+                var uniqueValues = uniqueValues(row);
+                if (Objects.isNull(uniqueValues)) {
+                    changedRows.add(row);
+                    continue;
+                }
 
-                        var propertyDescription = getPropertyDescriptor(model, fieldName);
-                        PropertyUtils.setSimpleProperty(model, fieldName, convertWrapperType(propertyDescription, model, mergeMode, row.get(notRelation)));
-                    }
+                var rowKey = RowFingerprintStore.keyOf(uniqueValues);
+                var rowHash = RowFingerprintStore.hashOf(row);
+                //removed rows are always removed, their fingerprints are dropped...
+                if (ImportProcessType.SAVE.equals(importProcessType) && Objects.isNull(seenRowKeys) && fingerprints.isUnchanged(rowKey, rowHash)) {
+                    skippedRows.incrementAndGet();
+                    continue;
                 }
-                models.add(model);
-            }
-            isAllDataValid = true;
-            log.info("Starting import to database...");
-            if (ImportProcessType.SAVE.equals(importProcessType)) {
-                modelService.saveAll(models);
-            } else {
-                modelService.removeAll(models);
+                pendingFingerprints.put(rowKey, rowHash);
+                changedRows.add(row);
             }
-            log.info("{} of {} datas have been imported successfully...", data.size(), itemType);
-            return new ImmutablePair<>(Boolean.TRUE, String.format("{0} of {1} data has been imported successfully", data.size(), itemType));
+            errorRow = null;
+            return changedRows;
+        }
 
+        //relation values repeat on many rows, so all of them are resolved once before the chunk is converted...
+        private ReferenceDictionary resolveReferences(List<Row> chunk) throws Exception {
+            var references = new HashMap<Class<?>, Set<LookupKey>>();
+            for (var row : chunk) {
+                //trim values
+                for (var i = 0; i < row.size(); i++) {
+                    row.set(i, StringUtils.trim(row.get(i)));
+                }
+                errorRow = row;
 
-        } catch (Throwable e) {
-            if (isAllDataValid) {
-                log.error("Error occurred while data was imported..." + exceptionMessage(e));
-                return new ImmutablePair<>(Boolean.FALSE, "Error occurred while data was imported..." + exceptionMessage(e));
-            } else {
-                log.error("Error occurred ..Error Row {}::Error Message {}", convertObjectToJson(errorRow), exceptionMessage(e));
-                return new ImmutablePair<>(Boolean.FALSE, "Error occurred while data was imported...Error Row : " + convertObjectToJson(errorRow) + " Error Message : " + exceptionMessage(e));
+                for (var relationColumn : planOf(row).getRelationColumns()) {
+                    var value = row.get(relationColumn.getIndex());
+                    var targetReferences = references.computeIfAbsent(relationColumn.getTargetClass(), t -> new HashSet<>());
+                    if (relationColumn.isUnique()) {
+                        var uniqueQuery = getUniqueRelationQuery(relationColumn, value, siteModel);
+                        if (Objects.nonNull(uniqueQuery)) {
+                            targetReferences.add(new LookupKey(uniqueQuery));
+                        }
+                    }
+                    for (var relationQuery : getRelationQueries(relationColumn, value, siteModel)) {
+                        targetReferences.add(new LookupKey(relationQuery));
+                    }
+                }
             }
+            errorRow = null;
+            return importMetrics.time(ImportMetrics.PHASE_RELATION, tags, () -> modelLookupService.resolveReferences(references));
+        }
 
+        /**
+         * @return raw values of the unique columns or {@code null} when the row has none
+         */
+        @SneakyThrows
+        private List<String> uniqueValues(Row row) {
+            var uniqueColumns = planOf(row).getUniqueColumns();
+            if (uniqueColumns.isEmpty()) {
+                return null;
+            }
+            return uniqueColumns.stream().map(c -> StringUtils.trim(row.get(c.getIndex()))).toList();
         }
 
+        //headers are compiled once and reused while the row shape stays the same...
+        private ImportPlan planOf(Row row) throws Exception {
+            if (Objects.isNull(plan) || !plan.matches(row.getHeader())) {
+                plan = importPlanCache.getPlan(itemType, row.getHeader());
+            }
+            return plan;
+        }
     }
 
     private String exceptionMessage(Throwable ex) {
@@ -305,18 +745,6 @@ public class ImportServiceImpl implements ImportService {
         return message;
     }
 
-    private PropertyDescriptor getPropertyDescriptor(ItemModel model, String fieldName) throws
-            NoSuchFieldException,
-            IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-        var propertyDescription = PropertyUtils.getPropertyDescriptor(model, fieldName);
-        if (Objects.isNull(propertyDescription)) {
-            log.error("This field {} not contains on model {}...", fieldName, model);
-            throw new NoSuchFieldException(String.format("%s alanı %s tablosunda yer alan bir alan değildir.",
-                    fieldName, StoreClassUtils.getSimpleName(model)));
-        }
-        return propertyDescription;
-    }
-
     private String convertObjectToJson(Object value) {
         try {
             if (Objects.isNull(value)) {
@@ -339,156 +767,92 @@ public class ImportServiceImpl implements ImportService {
         }
     }
 
-    private String clearFieldName(String fieldName) {
-        var content = StringUtils.substringBetween(fieldName, "[", "]");
-        fieldName = StringUtils.remove(fieldName, content);
-        fieldName = StringUtils.remove(fieldName, "[");
-        fieldName = StringUtils.remove(fieldName, "]");
-        return fieldName;
-    }
+    private Map<String, Object> getUniqueQuery(ImportPlan plan, Row row, SiteModel siteModel,
+                                               ReferenceDictionary referenceDictionary) throws ParseException {
+        var uniqueMapForQuery = new HashMap<String, Object>();
+        for (var uniqueColumn : plan.getUniqueColumns()) {
 
-    private Collection<ItemModel> findJavaType(String typeName) {
-        if (StringUtils.startsWith(typeName, "java.util.Set")) {
-            return new HashSet<>();
-        } else {
-            return new ArrayList<>();
+            // if relation field is unique...
+            if (uniqueColumn.isRelation()) {
+                var uniqueQuery = getUniqueRelationQuery(uniqueColumn, row.get(uniqueColumn.getIndex()), siteModel);
+                uniqueMapForQuery.put(uniqueColumn.getFieldName(), Objects.isNull(uniqueQuery) ? null
+                        : referenceDictionary.get(uniqueColumn.getTargetClass(), uniqueQuery));
+            } else {
+                uniqueMapForQuery.put(uniqueColumn.getFieldName(), uniqueColumn.getConverter().convert(row.get(uniqueColumn.getIndex()), null));
+            }
         }
+        return uniqueMapForQuery;
     }
 
-    @SneakyThrows
-    private Object convertWrapperType(PropertyDescriptor propertyDescriptor, ItemModel model,
-                                      MergeStrategyEnum mergeStrategyEnum,
-                                      String value) throws ParseException {
-
-        Class tClass = PropertyUtils.getReadMethod(propertyDescriptor).getReturnType();
-
-        if (BooleanUtils.isTrue(tClass.isEnum())) {
-            var enumConstant = tClass.getEnumConstants();
-            var enumValue = Arrays.asList(enumConstant)
-                    .stream().filter(e -> StringUtils.equalsIgnoreCase(String.valueOf(e), value))
-                    .findFirst().orElseThrow(NoSuchFieldError::new);
-            return enumValue;
+    /**
+     * @return model found by the search service or {@code null} when there is no record with the given unique values
+     */
+    private ItemModel searchUniqueModel(Class itemType, Map<String, Object> uniqueMapForQuery, Row errorRow) throws Exception {
+        try {
+            return searchService.searchSingleResult(itemType, (Map) uniqueMapForQuery, SearchOperator.AND);
+        } catch (ModelNotFoundException e) {
+            return null;
+        } catch (Exception e) {
+            log.error("Error occurred while data finding on database...Error Row {}::Error Message {}", convertObjectToJson(errorRow), ExceptionUtils.getMessage(e));
+            throw new Exception("Error occurred while data was imported...Error Row  " + convertObjectToJson(errorRow) + " Error Message : " + ExceptionUtils.getMessage(e));
         }
+    }
 
-        switch (tClass.getSimpleName()) {
-            case "Double":
-            case "double":
-                try {
-                    return Double.valueOf(value);
-                } catch (NumberFormatException e) {
-                    return NumberUtils.DOUBLE_ZERO;
-                }
-            case "Integer":
-            case "int":
-                try {
-                    return Integer.valueOf(value);
-                } catch (NumberFormatException e) {
-                    return NumberUtils.INTEGER_ZERO;
-                }
-            case "Float":
-            case "float":
-                try {
-                    return Float.valueOf(value);
-                } catch (NumberFormatException e) {
-                    return NumberUtils.FLOAT_ZERO;
-                }
-            case "Long":
-            case "long":
-                try {
-                    return Long.valueOf(value);
-                } catch (NumberFormatException e) {
-                    return NumberUtils.LONG_ZERO;
-                }
-            case "boolean":
-            case "Boolean":
-                return BooleanUtils.toBoolean(value);
-
-            case "BigDecimal":
-                try {
-                    return new BigDecimal(value);
-                } catch (NumberFormatException e) {
-                    return BigDecimal.ZERO;
-                }
-
-            case "Date":
-                try {
-                    return DateUtils.parseDateStrictly(value, datePatterns);
-                } catch (final ParseException e) {
-                    log.error("Given date {} is not valid.", value);
-                    throw new ParseException("Given date " + value + " is not valid", -1);
-                }
+    /**
+     * @return query of a unique relation column or {@code null} when the relation is given as empty
+     */
+    private Map<String, Object> getUniqueRelationQuery(ColumnPlan column, String value, SiteModel siteModel) {
+        var map = new HashMap<String, Object>();
+        for (var relationParam : getRelationParams(column, value)) {
+            map.putAll(relationParam);
+        }
 
-            case "Set":
-            case "List":
-                var rawType = StringUtils.substringBetween(propertyDescriptor.getReadMethod().getGenericReturnType().getTypeName(), "<", ">");
-                var splitedValuesStream = Arrays.asList(StringUtils.split(value, SEMICOLON)).stream();
-
-                switch (StringUtils.remove(rawType, "java.lang.")) {
-                    case "Integer":
-                        if (propertyDescriptor.getPropertyType().equals(List.class)) {
-                            if (Objects.equals(mergeStrategyEnum, MergeStrategyEnum.MERGE)) {
-                                var records = Optional.ofNullable((Collection<Integer>) PropertyUtils.getSimpleProperty(model, propertyDescriptor.getName())).orElse(new ArrayList<>());
-                                records.addAll(new ArrayList<>(splitedValuesStream.map(Integer::valueOf).collect(Collectors.toSet())));
-                                return records;
-                            } else {
-                                return new ArrayList<>(splitedValuesStream.map(Integer::valueOf).collect(Collectors.toSet()));
-                            }
-                        } else {
-                            if (Objects.equals(mergeStrategyEnum, MergeStrategyEnum.MERGE)) {
-                                var records = Optional.ofNullable((Collection<Integer>) PropertyUtils.getSimpleProperty(model, propertyDescriptor.getName())).orElse(new HashSet<>());
-                                records.addAll(new HashSet<>(splitedValuesStream.map(Integer::valueOf).collect(Collectors.toSet())));
-                                return records;
-                            } else {
-                                return new HashSet<>(splitedValuesStream.map(Integer::valueOf).collect(Collectors.toSet()));
-                            }
-                        }
+        var isNullRelation = map.values().stream().anyMatch(v -> StringUtils.isEmpty((String) v) || StringUtils.equalsIgnoreCase((String) v, "null"));
+        if (isNullRelation) {
+            return null;
+        }
+        if (!column.isSiteField()) {
+            map.put("site", siteModel);
+        }
+        return map;
+    }
 
-                    case "Double":
-                        if (propertyDescriptor.getPropertyType().equals(List.class)) {
-                            if (Objects.equals(mergeStrategyEnum, MergeStrategyEnum.MERGE)) {
-                                var records = Optional.ofNullable((Collection<Double>) PropertyUtils.getSimpleProperty(model, propertyDescriptor.getName())).orElse(new ArrayList<>());
-                                records.addAll(new ArrayList<>(splitedValuesStream.map(Double::valueOf).collect(Collectors.toSet())));
-                                return records;
-                            } else {
-                                return new ArrayList<>(splitedValuesStream.map(Double::valueOf).collect(Collectors.toSet()));
-                            }
-                        } else {
-                            if (Objects.equals(mergeStrategyEnum, MergeStrategyEnum.MERGE)) {
-                                var records = Optional.ofNullable((Collection<Double>) PropertyUtils.getSimpleProperty(model, propertyDescriptor.getName())).orElse(new HashSet<>());
-                                records.addAll(new HashSet<>(splitedValuesStream.map(Double::valueOf).collect(Collectors.toSet())));
-                                return records;
-                            } else {
-                                return new HashSet<>(splitedValuesStream.map(Double::valueOf).collect(Collectors.toSet()));
-                            }
-                        }
-                    default:
-                        if (propertyDescriptor.getPropertyType().equals(List.class)) {
-
-                            if (Objects.equals(mergeStrategyEnum, MergeStrategyEnum.MERGE)) {
-                                var records = Optional.ofNullable((Collection<String>) PropertyUtils.getSimpleProperty(model, propertyDescriptor.getName())).orElse(new ArrayList<>());
-                                records.addAll(new ArrayList<>(splitedValuesStream.map(String::valueOf).collect(Collectors.toSet())));
-                                return records;
-                            } else {
-                                return new ArrayList<>(splitedValuesStream.map(String::valueOf).collect(Collectors.toSet()));
-                            }
+    private List<Map<String, Object>> getRelationQueries(ColumnPlan column, String value, SiteModel siteModel) {
+        if (StringUtils.isEmpty(value) || StringUtils.equalsIgnoreCase(value, "null")) {
+            return List.of();
+        }
 
-                        } else {
-                            if (Objects.equals(mergeStrategyEnum, MergeStrategyEnum.MERGE)) {
-                                var records = Optional.ofNullable((Collection<String>) PropertyUtils.getSimpleProperty(model, propertyDescriptor.getName())).orElse(new HashSet<>());
-                                records.addAll(new HashSet<>(splitedValuesStream.map(String::valueOf).collect(Collectors.toSet())));
-                                return records;
-                            } else {
-                                return new HashSet<>(splitedValuesStream.map(String::valueOf).collect(Collectors.toSet()));
-                            }
-                        }
-                }
-            case "Duration":
-                return Duration.parse(value);
+        List<Map<String, Object>> relationQueries;
+        if (column.isCollection()) {
+            relationQueries = getRelationParams(column, value);
+        } else {
+            //content code,version
+            relationQueries = column.getKeyParts().size() == 1
+                    ? List.of(new HashMap<>(Map.of(column.getKeyParts().get(0), value)))
+                    : List.of(getRelationParams(column, value).get(0));
+        }
+        if (!column.isSiteTarget() && Objects.nonNull(siteModel)) {
+            relationQueries.forEach(q -> q.put("site", siteModel));
+        }
+        return relationQueries;
+    }
 
-            default:
-                return value;
+    private List<Map<String, Object>> getRelationParams(ColumnPlan column, String value) {
+        var keyParts = column.getKeyParts();
+        var relationParams = new ArrayList<Map<String, Object>>();
+        for (String rel : StringUtils.defaultString(value).split(SEMICOLON)) {
+            var relValues = StringUtils.split(rel, COLON);
+            if (relValues.length != keyParts.size()) {
+                throw new IllegalArgumentException("Parameter count can not be matched.");
+            }
 
+            var map = new HashMap<String, Object>();
+            for (int i = 0; i < relValues.length; i++) {
+                map.put(keyParts.get(i), relValues[i]);
+            }
+            relationParams.add(map);
         }
+        return relationParams;
     }
 
 }
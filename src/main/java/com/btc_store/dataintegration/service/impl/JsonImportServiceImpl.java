@@ -0,0 +1,302 @@
+package com.btc_store.dataintegration.service.impl;
+
+import com.btc_store.dataintegration.constant.DataIntegrationConstant;
+import com.btc_store.dataintegration.json.JsonRowIterator;
+import com.btc_store.dataintegration.metrics.ImportMetrics;
+import com.btc_store.dataintegration.partition.SitePartitioner;
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.dataintegration.service.ImportService;
+import com.btc_store.dataintegration.service.JsonImportService;
+import com.btc_store.dataintegration.service.MediaImportService;
+import com.btc_store.domain.enums.DataIntegrationStatus;
+import com.btc_store.domain.enums.ImportProcessType;
+import com.btc_store.domain.model.custom.SiteModel;
+import com.btc_store.domain.model.custom.dataintegration.DataIntegrationLogModel;
+import com.btc_store.service.ModelService;
+import com.btc_store.service.SiteService;
+import com.btc_store.service.exception.StoreRuntimeException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.PeekingIterator;
+import com.opencsv.exceptions.CsvValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import util.Messages;
+import util.StoreClassUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SITE_FIELD;
+import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SITE_MODEL;
+import static com.btc_store.dataintegration.constant.DataIntegrationConstant.SYNC_PROCESS_TYPE;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JsonImportServiceImpl implements JsonImportService {
+
+    @Value("${csv.import.streaming.enabled}")
+    private boolean streamingEnabled;
+
+    @Value("${data.import.request.json.max.length}")
+    private int requestJsonMaxLength;
+
+    @Value("${csv.import.site.partition.enabled}")
+    private boolean sitePartitionEnabled;
+
+    @Value("${csv.import.site.partition.max.sites}")
+    private int sitePartitionMaxSites;
+
+    @Value("${csv.import.site.partition.queue.capacity}")
+    private int sitePartitionQueueCapacity;
+
+    @Value("${csv.import.chunk.size}")
+    private int chunkSize;
+
+    protected final ImportService importService;
+    protected final MediaImportService mediaImportService;
+    protected final ModelService modelService;
+    protected final SiteService siteService;
+    protected final ImportMetrics importMetrics;
+    protected final MessageSource messageSource;
+    protected final ObjectMapper objectMapper;
+
+    @Override
+    public Pair<Boolean, String> importJson(String processType, Class itemClass, InputStream body,
+                                            DataIntegrationLogModel dataintegrationLogModel, IntConsumer readRows) throws Exception {
+        Pair<Boolean, String> isSuccessPair = new ImmutablePair<>(Boolean.FALSE, "ERROR");
+        var isSiteModel = false;
+        var isPartitioned = false;
+        SiteModel siteModel = null;
+        var className = StoreClassUtils.getSimpleName(itemClass);
+        //only the beginning of the body is kept on the log, the body itself is parsed while it is received...
+        var requestJson = new RequestJsonCapture(requestJsonMaxLength);
+        try (var reader = new JsonRowIterator(objectMapper, new TeeInputStream(body, requestJson))) {
+            PeekingIterator<Row> rows = Iterators.peekingIterator(reader);
+            var rowCount = new MutableInt();
+
+            isSiteModel = StringUtils.equals(className, SITE_MODEL);
+
+            ImportProcessType importProcessType;
+            var isSync = StringUtils.equalsIgnoreCase(processType, SYNC_PROCESS_TYPE);
+            if (isSync || StringUtils.equalsIgnoreCase(processType, ImportProcessType.SAVE.getValue())) {
+                importProcessType = ImportProcessType.SAVE;
+            } else if (StringUtils.equalsIgnoreCase(processType, ImportProcessType.REMOVE.getValue())) {
+                importProcessType = ImportProcessType.REMOVE;
+            } else if (StringUtils.equalsIgnoreCase(processType, ImportProcessType.FILE.getValue())) {
+                importProcessType = ImportProcessType.FILE;
+            } else {
+                throw new NoSuchMethodException("İşlem türü Save,Remove,File veya Sync olmalıdır");
+            }
+
+            dataintegrationLogModel.setImportProcessType(importProcessType);
+            //every row handed to the import is counted...
+            var countedRows = Iterators.transform(rows, row -> {
+                rowCount.increment();
+                readRows.accept(rowCount.intValue());
+                return row;
+            });
+            if (BooleanUtils.isFalse(isSiteModel) && rows.hasNext() && BooleanUtils.isTrue(sitePartitionEnabled)) {
+                //log of the request has no site, every site has its own log...
+                isPartitioned = true;
+                dataintegrationLogModel.setItemType(className);
+                dataintegrationLogModel.setStartDate(new Date());
+                dataintegrationLogModel.setRequestJson(requestJson.toString());
+                dataintegrationLogModel.setStatus(DataIntegrationStatus.PROCESSING);
+                modelService.save(dataintegrationLogModel);
+                try {
+                    isSuccessPair = importPartitioned(itemClass, className, isSync, countedRows, importProcessType);
+                } finally {
+                    dataintegrationLogModel.setCount(rowCount.intValue());
+                    dataintegrationLogModel.setRequestJson(requestJson.toString());
+                }
+
+            } else if (BooleanUtils.isFalse(isSiteModel) && rows.hasNext()) {
+                var siteCode = rows.peek().get(DataIntegrationConstant.SITE_FIELD);
+                if (StringUtils.isEmpty(siteCode)) {
+                    throw new CsvValidationException("site(code)[unique] parametresi eksik");
+                }
+                siteModel = siteService.getSiteModel(siteCode);
+                dataintegrationLogModel.setItemType(className);
+                dataintegrationLogModel.setStartDate(new Date());
+                dataintegrationLogModel.setSite(siteModel);
+                dataintegrationLogModel.setRequestJson(requestJson.toString());
+                dataintegrationLogModel.setStatus(DataIntegrationStatus.PROCESSING);
+                modelService.save(dataintegrationLogModel);
+
+                //site of every row is checked while the body is parsed...
+                var checkedRows = Iterators.transform(countedRows, row -> {
+                    if (!StringUtils.equals(siteCode, row.get(DataIntegrationConstant.SITE_FIELD))) {
+                        throw new IllegalArgumentException("Site alanı tüm satırlar için aynı olmalıdır");
+                    }
+                    return row;
+                });
+                try {
+                    //rows of the first chunk are checked before anything is committed, a row of an other site found
+                    //after it fails the import with the number of rows committed before it...
+                    var firstChunk = Lists.newArrayList(Iterators.limit(checkedRows, chunkSize));
+                    isSuccessPair = importRows(itemClass, isSync, Iterators.concat(firstChunk.iterator(), checkedRows), importProcessType, siteModel);
+                } finally {
+                    dataintegrationLogModel.setCount(rowCount.intValue());
+                    dataintegrationLogModel.setRequestJson(requestJson.toString());
+                }
+
+            } else if (BooleanUtils.isTrue(isSiteModel) && rows.hasNext()) {
+                if (Objects.equals(ImportProcessType.FILE, importProcessType)) {
+                    isSuccessPair = importRows(itemClass, isSync, countedRows, importProcessType, null);
+                } else {
+                    try {
+                        siteModel = siteService.getSiteModel(rows.peek().get(DataIntegrationConstant.CODE_FIELD));
+                    } catch (Exception e) {
+                        siteModel = null;
+                    }
+                    dataintegrationLogModel.setSite(siteModel);
+                    isSuccessPair = importRows(itemClass, isSync, countedRows, importProcessType, siteModel);
+                }
+                dataintegrationLogModel.setCount(rowCount.intValue());
+            }
+
+            dataintegrationLogModel.setEndDate(new Date());
+            if (isSuccessPair.getKey()) {
+                dataintegrationLogModel.setStatus(DataIntegrationStatus.SUCCESS);
+                dataintegrationLogModel.setDescription(DataIntegrationStatus.SUCCESS.toString());
+            } else {
+                dataintegrationLogModel.setStatus(DataIntegrationStatus.FAIL);
+                dataintegrationLogModel.setDescription(isSuccessPair.getValue());
+            }
+            modelService.save(dataintegrationLogModel);
+            return isSuccessPair;
+
+        } catch (final Exception e) {
+            log.error("Exception occurred while importing datas...", e);
+            if (BooleanUtils.isFalse(isSiteModel) && (Objects.nonNull(siteModel) || isPartitioned)) {
+                dataintegrationLogModel.setStatus(DataIntegrationStatus.FAIL);
+                dataintegrationLogModel.setEndDate(new Date());
+                var exceptionMessage = "";
+                if (e instanceof StoreRuntimeException) {
+                    exceptionMessage = messageSource.getMessage(((StoreRuntimeException) e).getMessageKey(), ((StoreRuntimeException) e).getArgs(), Messages.getMessagesLocale());
+                } else {
+                    exceptionMessage = ExceptionUtils.getMessage(e);
+                }
+                dataintegrationLogModel.setDescription(exceptionMessage);
+                modelService.save(dataintegrationLogModel);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Rows of every site are imported concurrently with a log of their own, see {@link SitePartitioner}.
+     *
+     * @return result of the request, it is successful when every site is imported
+     */
+    private Pair<Boolean, String> importPartitioned(Class itemClass, String className, boolean isSync, Iterator<Row> rows,
+                                                    ImportProcessType importProcessType) throws Exception {
+        var results = new SitePartitioner(SITE_FIELD, sitePartitionMaxSites, chunkSize, sitePartitionQueueCapacity).run(rows, (siteCode, siteRows) -> {
+            //site of the partition is resolved once...
+            var siteModel = siteService.getSiteModel(siteCode);
+            var dataintegrationLogModel = modelService.create(DataIntegrationLogModel.class);
+            dataintegrationLogModel.setCode(UUID.randomUUID().toString());
+            dataintegrationLogModel.setItemType(className);
+            dataintegrationLogModel.setStartDate(new Date());
+            dataintegrationLogModel.setSite(siteModel);
+            dataintegrationLogModel.setImportProcessType(importProcessType);
+            dataintegrationLogModel.setStatus(DataIntegrationStatus.PROCESSING);
+            modelService.save(dataintegrationLogModel);
+
+            var rowCount = new MutableInt();
+            var countedRows = Iterators.transform(siteRows, row -> {
+                rowCount.increment();
+                return row;
+            });
+            Pair<Boolean, String> isSuccessPair;
+            try {
+                isSuccessPair = importRows(itemClass, isSync, countedRows, importProcessType, siteModel);
+            } catch (Exception e) {
+                log.error("Exception occurred while importing datas of site {}...", siteCode, e);
+                isSuccessPair = new ImmutablePair<>(Boolean.FALSE, ExceptionUtils.getMessage(e));
+            }
+
+            dataintegrationLogModel.setCount(rowCount.intValue());
+            dataintegrationLogModel.setEndDate(new Date());
+            dataintegrationLogModel.setStatus(isSuccessPair.getKey() ? DataIntegrationStatus.SUCCESS : DataIntegrationStatus.FAIL);
+            dataintegrationLogModel.setDescription(isSuccessPair.getKey() ? DataIntegrationStatus.SUCCESS.toString() : isSuccessPair.getValue());
+            modelService.save(dataintegrationLogModel);
+            return isSuccessPair;
+        });
+
+        var isSuccess = results.values().stream().allMatch(isSuccessPair -> BooleanUtils.isTrue(isSuccessPair.getKey()));
+        return new ImmutablePair<>(isSuccess, results.entrySet().stream().map(result -> result.getKey() + " : " + result.getValue().getValue())
+                .collect(Collectors.joining(System.lineSeparator())));
+    }
+
+    private Pair<Boolean, String> importRows(Class itemClass, boolean isSync, Iterator<Row> rows,
+                                             ImportProcessType importProcessType, SiteModel siteModel) {
+        //reading the rows is measured as parse time of the import...
+        rows = importMetrics.timeParse(rows, importMetrics.tags(itemClass, siteModel, importProcessType));
+        if (isSync) {
+            return importService.syncRows(itemClass, rows, siteModel, committedRows -> {
+            });
+        }
+        if (BooleanUtils.isFalse(streamingEnabled)) {
+            List<Row> allRows = Lists.newArrayList(rows);
+            if (Objects.equals(ImportProcessType.FILE, importProcessType)) {
+                return mediaImportService.importRows(itemClass, true, allRows.iterator());
+            }
+            return importService.importRows(itemClass, allRows, importProcessType, siteModel);
+        }
+
+        if (Objects.equals(ImportProcessType.FILE, importProcessType)) {
+            return mediaImportService.importRows(itemClass, true, rows);
+        }
+        return importService.importRows(itemClass, rows, importProcessType, siteModel, committedRows -> {
+        }, null);
+    }
+
+    /**
+     * Keeps the first bytes of the request body for the log model and drops the rest.
+     */
+    private static class RequestJsonCapture extends OutputStream {
+
+        private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        private final int maxLength;
+
+        private RequestJsonCapture(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(int b) {
+            if (captured.size() < maxLength) {
+                captured.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            captured.write(bytes, offset, Math.max(0, Math.min(length, maxLength - captured.size())));
+        }
+
+        @Override
+        public String toString() {
+            return captured.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
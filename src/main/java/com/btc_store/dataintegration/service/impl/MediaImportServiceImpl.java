@@ -1,7 +1,16 @@
 package com.btc_store.dataintegration.service.impl;
 
+import com.btc_store.dataintegration.binder.PropertyBinder;
+import com.btc_store.dataintegration.binder.PropertyBinders;
+import com.btc_store.dataintegration.convert.ValueConverters;
 import com.btc_store.dataintegration.enums.MergeStrategyEnum;
+import com.btc_store.dataintegration.media.MediaContentIndex;
+import com.btc_store.dataintegration.metrics.ImportMetrics;
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.dataintegration.row.Rows;
 import com.btc_store.dataintegration.service.MediaImportService;
+import com.btc_store.dataintegration.service.ModelLookupService;
+import com.btc_store.domain.enums.ImportProcessType;
 import com.btc_store.domain.enums.MediaCategory;
 import com.btc_store.domain.enums.SearchOperator;
 import com.btc_store.domain.model.custom.MediaModel;
@@ -9,29 +18,34 @@ import com.btc_store.domain.model.custom.SiteModel;
 import com.btc_store.domain.model.custom.extend.ItemModel;
 import com.btc_store.service.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.Striped;
+import io.micrometer.core.instrument.Tags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.commons.lang3.time.DateUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
 import util.StoreClassUtils;
 
-import java.beans.PropertyDescriptor;
 import java.io.File;
-import java.lang.reflect.InvocationTargetException;
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Path;
-import java.text.ParseException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 @Service
@@ -50,10 +64,28 @@ public class MediaImportServiceImpl implements MediaImportService {
     private static final String SECURE = "secure";
     private static final String GALLERIES = "galleries";
     private static final String SITE_MODEL = "SiteModel";
+    private static final String DOWNLOADED = "downloaded";
+    private static final String STORED = "stored";
 
     @Value("${csv.file.upload.folder.path}")
     private String defaultUploadPath;
 
+    @Value("${csv.media.fetch.concurrency}")
+    private int fetchConcurrency;
+
+    @Value("${csv.media.fetch.per.host}")
+    private int fetchPerHost;
+
+    @Value("${csv.media.fetch.timeout.millis}")
+    private int fetchTimeout;
+
+    private final Map<String, Semaphore> fetchPermits = new ConcurrentHashMap<>();
+    private final Striped<Lock> ownerLocks = Striped.lazyWeakLock(1024);
+    private final Striped<Lock> contentLocks = Striped.lazyWeakLock(1024);
+
+    @Value("${csv.media.dedup.enabled}")
+    private boolean dedupEnabled;
+
 
     protected final ModelService modelService;
     protected final SiteService siteService;
@@ -61,184 +93,286 @@ public class MediaImportServiceImpl implements MediaImportService {
     protected final ObjectMapper objectMapper;
     protected final MediaService mediaService;
     protected final CmsCategoryService cmsCategoryService;
+    protected final MediaContentIndex mediaContentIndex;
+    protected final ImportMetrics importMetrics;
+    protected final ModelLookupService modelLookupService;
 
     @Override
     public Pair<Boolean, String> importData(Class itemType, boolean move, List<Map<String, String>> data) {
-        var errorRows = new ArrayList<Map<String, String>>();
-        SiteModel siteModel = null;
-        for (Map<String, String> row : data) {
-            try {
-
-                //site field is unique all tables but not for itself :)
-                if (!StringUtils.equals(StoreClassUtils.getSimpleName(itemType), SITE_MODEL)) {
-                    siteModel = siteService.getSiteModel(row.get(SITE_FIELD));
-                }
-                var mediaCategory = getRowField(row, MEDIACATEGORY);
-                mediaCategory = StringUtils.isEmpty(mediaCategory) ? MediaCategory.OTHER.getValue() : mediaCategory;
-
-                ItemModel model;
-                var uniqueFields = row.keySet().stream().filter(p -> StringUtils.contains(p, UNIQUE_POINTER)).collect(Collectors.toSet());
-                var tempObj = modelService.create(itemType);
-                var uniqueMapForQuery = new HashMap<>();
-                for (var uniqueField : uniqueFields) {
-
-                    // if relation field is unique...
-                    if (StringUtils.contains(uniqueField, "(")) {
-                        var relationType = StringUtils.split(uniqueField, "(")[0];
-                        var contents = StringUtils.substringBetween(uniqueField, "(", ")").split(COLON);
-
-                        var relationContents = row.get(uniqueField).split(SEMICOLON);
-                        var map = new HashMap<>();
-                        for (String rel : relationContents) {
-                            if (StringUtils.split(rel, COLON).length != contents.length) {
-                                throw new IllegalArgumentException("Parameter count can not be matched.");
-                            }
-
+        return importData(itemType, move, data.iterator());
+    }
 
-                            for (int i = 0; i < contents.length; i++) {
-                                map.put(contents[i], StringUtils.split(rel, COLON)[i]);
-                            }
+    @Override
+    public Pair<Boolean, String> importData(Class itemType, boolean move, Iterator<Map<String, String>> rows) {
+        return importRows(itemType, move, Rows.of(rows));
+    }
 
+    @Override
+    public Pair<Boolean, String> importRows(Class itemType, boolean move, Iterator<Row> rows) {
+        List<Row> errorRows = Collections.synchronizedList(new ArrayList<>());
+        var count = 0;
+        //import user of the calling thread is kept on the fetch threads...
+        var executorService = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(fetchConcurrency, new CustomizableThreadFactory("media-import-")));
+        //rows are read only as fast as they are imported...
+        var inFlightRows = new Semaphore(fetchConcurrency * 2);
+        var startTime = System.nanoTime();
+        try {
+            while (rows.hasNext()) {
+                var row = rows.next();
+                count++;
+                inFlightRows.acquire();
+                executorService.execute(() -> {
+                    try {
+                        if (BooleanUtils.isFalse(importRow(itemType, move, row))) {
+                            errorRows.add(row);
                         }
+                    } catch (Throwable e) {
+                        log.error("Row exception : " + ExceptionUtils.getMessage(e));
+                        errorRows.add(row);
+                    } finally {
+                        inFlightRows.release();
+                    }
+                });
+            }
+            executorService.shutdown();
+            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ImmutablePair<>(Boolean.FALSE, "File integration is interrupted after " + count + " rows");
+        } finally {
+            executorService.shutdownNow();
+        }
 
-                        var isNullRelation = map.keySet().stream().anyMatch(p -> StringUtils.isEmpty((String) map.get(p)) || StringUtils.equalsIgnoreCase((String) map.get(p), "null"));
+        importMetrics.rows(importMetrics.tags(itemType, null, ImportProcessType.FILE), count - errorRows.size(), errorRows.size(),
+                Duration.ofNanos(System.nanoTime() - startTime));
+        if (CollectionUtils.isNotEmpty(errorRows)) {
+            log.error("Some items could not be imported");
+            return new ImmutablePair<>(Boolean.FALSE, "ERROR ROWS: " + convertObjectToJson(errorRows));
+        } else {
+            log.info(String.format("%s of %s finished file integration...", count, itemType));
+            return new ImmutablePair<>(Boolean.TRUE, String.format("%s of %s finished file integration...", count, itemType));
+        }
+    }
 
-                        if (isNullRelation) {
-                            uniqueMapForQuery.put(relationType, null);
+    /**
+     * Fetches and stores the media of the row, then binds it to the owning model. Rows of the same owning model are
+     * bound one by one on the latest state of the model, fetching and storing run concurrently.
+     *
+     * @return {@code false} when there is no file on the given path or url
+     */
+    private boolean importRow(Class itemType, boolean move, Row row) throws Exception {
+        SiteModel siteModel = null;
+        //site field is unique all tables but not for itself :)
+        if (!StringUtils.equals(StoreClassUtils.getSimpleName(itemType), SITE_MODEL)) {
+            siteModel = siteService.getSiteModel(row.get(SITE_FIELD));
+        }
+        var mediaCategory = getRowField(row, MEDIACATEGORY);
+        mediaCategory = StringUtils.isEmpty(mediaCategory) ? MediaCategory.OTHER.getValue() : mediaCategory;
+
+        var uniqueFields = row.getHeader().getNames().stream().filter(p -> StringUtils.contains(p, UNIQUE_POINTER)).collect(Collectors.toSet());
+        var uniqueMapForQuery = new HashMap<>();
+        for (var uniqueField : uniqueFields) {
+
+            // if relation field is unique...
+            if (StringUtils.contains(uniqueField, "(")) {
+                var relationType = StringUtils.split(uniqueField, "(")[0];
+                var contents = StringUtils.substringBetween(uniqueField, "(", ")").split(COLON);
+
+                var relationContents = row.get(uniqueField).split(SEMICOLON);
+                var map = new HashMap<>();
+                for (String rel : relationContents) {
+                    if (StringUtils.split(rel, COLON).length != contents.length) {
+                        throw new IllegalArgumentException("Parameter count can not be matched.");
+                    }
 
-                        } else {
-                            Class tclass = PropertyUtils.getReadMethod(PropertyUtils.getPropertyDescriptor(tempObj, relationType)).getReturnType();
-                            uniqueMapForQuery.put(StringUtils.remove(StringUtils.remove(uniqueField, UNIQUE_POINTER), CODE_POINTER), searchService.searchSingleResult(tclass, map, SearchOperator.AND));
-                        }
 
-                    } else {
-                        var fieldName = clearFieldName(uniqueField);
-                        uniqueMapForQuery.put(fieldName, convertWrapperType(PropertyUtils.getPropertyDescriptor(tempObj, StringUtils.remove(uniqueField, UNIQUE_POINTER)), row.get(uniqueField)));
+                    for (int i = 0; i < contents.length; i++) {
+                        map.put(contents[i], StringUtils.split(rel, COLON)[i]);
                     }
 
                 }
 
-                //find model given unique fields...
-                model = searchService.searchSingleResult(itemType, uniqueMapForQuery, SearchOperator.AND);
-                var fieldCellValue = getCellFieldValue(row);
-                PropertyDescriptor propertyDescription = getPropertyDescriptor(model, fieldCellValue);
-                String typeName = PropertyUtils.getReadMethod(propertyDescription).getGenericReturnType().getTypeName();
-
-                //Dosya okunacak yer disk veya url olabilir.Öncelikle Path alanı var ise onu baz almalıyız.Yoksa url alanından okuyacağız.
+                var isNullRelation = map.keySet().stream().anyMatch(p -> StringUtils.isEmpty((String) map.get(p)) || StringUtils.equalsIgnoreCase((String) map.get(p), "null"));
 
-                var isPath = StringUtils.isNotEmpty(getRowField(row, PATH));
-                var isUrl = StringUtils.isNotEmpty(getRowField(row, URL));
+                if (isNullRelation) {
+                    uniqueMapForQuery.put(relationType, null);
 
-                File tempFile = null;
-                if (isUrl) {
-                    tempFile = new File(StringUtils.join(defaultUploadPath, "/temp/",
-                            StringUtils.substringAfterLast(new URL(getRowField(row, URL)).getPath(), "/")));
+                } else {
+                    Class tclass = PropertyBinders.get(itemType, relationType).getPropertyType();
+                    uniqueMapForQuery.put(StringUtils.remove(StringUtils.remove(uniqueField, UNIQUE_POINTER), CODE_POINTER), searchService.searchSingleResult(tclass, map, SearchOperator.AND));
                 }
 
+            } else {
+                var fieldName = clearFieldName(uniqueField);
+                uniqueMapForQuery.put(fieldName, ValueConverters.strictOf(PropertyBinders.get(itemType, StringUtils.remove(uniqueField, UNIQUE_POINTER))).convert(row.get(uniqueField), null));
+            }
 
-                var path = Path.of(StringUtils.join(defaultUploadPath, getRowField(row, PATH))).normalize();
-                var url = getRowField(row, URL);
-                if (StringUtils.startsWith(typeName, "java")) {
-                    model = searchService.searchSingleResultRelation(model, fieldCellValue);
-                    Collection<ItemModel> itemModels = findJavaType(typeName);
-                    var relationItemModel = (Collection<ItemModel>) PropertyUtils.getProperty(model, fieldCellValue);
-
-                    MergeStrategyEnum mergeStrategyEnum = MergeStrategyEnum.MERGE;
-                    var rowFieldHeader = row.entrySet().stream().filter(e -> e.getKey().contains("field")).findFirst().get().getKey();
-                    if (StringUtils.contains(rowFieldHeader, "mode")) {
-                        String mergeMode = StringUtils.remove(StringUtils.split(rowFieldHeader, "[")[1], "]").split("=")[1];
-                        mergeStrategyEnum = MergeStrategyEnum.valueOf(StringUtils.toRootUpperCase(mergeMode));
-
-                    }
+        }
 
+        //model must exist before its file is fetched...
+        searchService.searchSingleResult(itemType, uniqueMapForQuery, SearchOperator.AND);
+        var fieldCellValue = getCellFieldValue(row);
+        var binder = PropertyBinders.get(itemType, fieldCellValue);
 
-                    Collection<MediaModel> medias = null;
-                    if (MergeStrategyEnum.MERGE.equals(mergeStrategyEnum)) {
-                        itemModels = CollectionUtils.isEmpty(relationItemModel) ? itemModels : relationItemModel;
-                    } else {
+        //Dosya okunacak yer disk veya url olabilir.Öncelikle Path alanı var ise onu baz almalıyız.Yoksa url alanından okuyacağız.
 
-                            medias = (Collection<MediaModel>) PropertyUtils.getProperty(model, fieldCellValue);
-                            PropertyUtils.setSimpleProperty(model, fieldCellValue, itemModels);
+        var isPath = StringUtils.isNotEmpty(getRowField(row, PATH));
+        var isUrl = StringUtils.isNotEmpty(getRowField(row, URL));
 
+        var tags = importMetrics.tags(itemType, siteModel, ImportProcessType.FILE);
+        //every row is fetched into its own folder, same file names of different rows must not overwrite each other...
+        File tempFolder = null;
+        try {
+            File file;
+            String hash = null;
+            if (isPath) {
+                file = Path.of(StringUtils.join(defaultUploadPath, getRowField(row, PATH))).normalize().toFile();
+            } else {
+                var url = new URL(getRowField(row, URL));
+                tempFolder = new File(StringUtils.join(defaultUploadPath, "/temp/", UUID.randomUUID().toString()));
+                file = new File(tempFolder, StringUtils.substringAfterLast(url.getPath(), "/"));
+                hash = fetch(url, file);
+                importMetrics.mediaBytes(DOWNLOADED, file.length(), tags);
+            }
 
+            if (!file.isFile()) {
+                return false;
+            }
 
-                    }
+            var secure = BooleanUtils.toBoolean(getRowField(row, SECURE));
+            var mediaModel = store(file, hash, secure, !isUrl && move, mediaCategory, siteModel, tags);
 
-                    File file;
-                    if (isPath) {
-                        file = path.toFile();
-                    } else {
-                        FileUtils
-                                .copyURLToFile(new URL(url), tempFile);
-                        file = tempFile;
-                    }
+            var ownerLock = ownerLocks.get(Pair.of(itemType, uniqueFields.stream().sorted().map(row::get).toList()));
+            ownerLock.lock();
+            try {
+                //owning model is read again, an other row of the same model may have been bound meanwhile...
+                ItemModel model = searchService.searchSingleResult(itemType, uniqueMapForQuery, SearchOperator.AND);
+                if (binder.isCollection()) {
+                    bindCollection(model, binder, fieldCellValue, row, mediaModel, siteModel, secure);
+                } else {
+                    binder.set(model, mediaModel);
+                    modelService.save(model);
+                }
+            } finally {
+                ownerLock.unlock();
+            }
+            log.info("Imported file..." + convertObjectToJson(row));
+            return true;
 
-                    if (file.isFile()) {
-                        ItemModel mediaModel;
+        } finally {
+            if (Objects.nonNull(tempFolder) && tempFolder.isDirectory()) {
+                FileUtils.deleteDirectory(tempFolder);
+            }
+        }
+    }
 
-                            mediaModel = mediaService.storage(file, BooleanUtils.toBoolean(getRowField(row, SECURE)),
-                                    !isUrl && move, cmsCategoryService.getCmsCategoryByCode(mediaCategory, siteModel), siteModel);
+    private void bindCollection(ItemModel model, PropertyBinder binder, String fieldCellValue, Row row,
+                                MediaModel mediaModel, SiteModel siteModel, boolean secure) {
+        model = searchService.searchSingleResultRelation(model, fieldCellValue);
+        Collection<ItemModel> itemModels = binder.isSet() ? new HashSet<>() : new ArrayList<>();
+        var relationItemModel = (Collection<ItemModel>) binder.get(model);
 
+        MergeStrategyEnum mergeStrategyEnum = MergeStrategyEnum.MERGE;
+        var rowFieldHeader = row.getHeader().getNames().stream().filter(h -> h.contains("field")).findFirst().get();
+        if (StringUtils.contains(rowFieldHeader, "mode")) {
+            String mergeMode = StringUtils.remove(StringUtils.split(rowFieldHeader, "[")[1], "]").split("=")[1];
+            mergeStrategyEnum = MergeStrategyEnum.valueOf(StringUtils.toRootUpperCase(mergeMode));
 
+        }
 
-                        itemModels.add(mediaModel);
-                        PropertyUtils.setSimpleProperty(model, fieldCellValue, itemModels);
-                        modelService.save(model);
-                        log.info("Imported file..." + convertObjectToJson(row));
-                        if (Objects.equals(MergeStrategyEnum.OVERRIDE, mergeStrategyEnum)) {
-                            if (CollectionUtils.isNotEmpty(medias)) {
-                                medias.forEach(m -> m.setDeleted(true));
-                                modelService.saveAll(mediaModel);
-                            }
 
-                        }
-                    } else {
-                        errorRows.add(row);
-                    }
+        Collection<MediaModel> medias = null;
+        if (MergeStrategyEnum.MERGE.equals(mergeStrategyEnum)) {
+            itemModels = CollectionUtils.isEmpty(relationItemModel) ? itemModels : relationItemModel;
+        } else {
 
+            medias = (Collection<MediaModel>) binder.get(model);
+            binder.set(model, itemModels);
 
-                } else {
+        }
 
-                    File file;
-                    if (isPath) {
-                        file = path.toFile();
-                    } else {
-                        FileUtils
-                                .copyURLToFile(new URL(url), tempFile);
-                        file = tempFile;
-                    }
+        //reused media given again is not added twice to a list...
+        if (itemModels.stream().noneMatch(m -> StringUtils.equals(((MediaModel) m).getCode(), mediaModel.getCode()))) {
+            itemModels.add(mediaModel);
+        }
+        binder.set(model, itemModels);
+        modelService.save(model);
+        if (Objects.equals(MergeStrategyEnum.OVERRIDE, mergeStrategyEnum)) {
+            if (CollectionUtils.isNotEmpty(medias)) {
+                //same content may be given again, reused media stays...
+                medias.removeIf(m -> StringUtils.equals(m.getCode(), mediaModel.getCode()));
+                //deduplicated media may still be bound to other records...
+                if (BooleanUtils.isTrue(dedupEnabled)) {
+                    medias.removeIf(modelLookupService::isReferenced);
+                }
+                medias.forEach(m -> {
+                    m.setDeleted(true);
+                    mediaContentIndex.evict(siteModel, secure, m);
+                });
+                modelService.saveAll(new ArrayList<ItemModel>(medias));
+            }
 
-                    if (file.isFile()) {
-                        var mediaModel = mediaService.storage(file, BooleanUtils.toBoolean(getRowField(row, SECURE)),
-                                isUrl ? false : move, cmsCategoryService.getCmsCategoryByCode(mediaCategory, siteModel), siteModel);
+        }
+    }
 
-                        PropertyUtils.setSimpleProperty(model, fieldCellValue, mediaModel);
-                        modelService.save(model);
-                        log.info("Imported file..." + convertObjectToJson(row));
-                    } else {
-                        errorRows.add(row);
-                    }
+    /**
+     * Stores the file as a new media unless the same content was stored before for the site and secure flag.
+     *
+     * @param hash content hash computed while the file was fetched, it is computed from the file when {@code null}
+     */
+    private MediaModel store(File file, String hash, boolean secure, boolean move, String mediaCategory,
+                             SiteModel siteModel, Tags tags) throws Exception {
+        if (BooleanUtils.isFalse(dedupEnabled)) {
+            importMetrics.mediaBytes(STORED, file.length(), tags);
+            return mediaService.storage(file, secure, move, cmsCategoryService.getCmsCategoryByCode(mediaCategory, siteModel), siteModel);
+        }
 
+        hash = Objects.isNull(hash) ? MediaContentIndex.hashOf(file.toPath()) : hash;
+        //same content on concurrent rows must be stored only once...
+        var contentLock = contentLocks.get(hash);
+        contentLock.lock();
+        try {
+            var existingMedia = mediaContentIndex.find(hash, siteModel, secure);
+            if (existingMedia.isPresent()) {
+                log.info("{} has the same content with media {}, it is not stored again", file.getName(), existingMedia.get().getCode());
+                if (move) {
+                    FileUtils.delete(file);
                 }
-                if (Objects.nonNull(tempFile) && tempFile.isFile()) {
-                    FileUtils.delete(tempFile);
-                }
-
-            } catch (Throwable e) {
-                log.error("Row exception : " + ExceptionUtils.getMessage(e));
-                errorRows.add(row);
+                return existingMedia.get();
             }
+
+            importMetrics.mediaBytes(STORED, file.length(), tags);
+            var mediaModel = mediaService.storage(file, secure, move, cmsCategoryService.getCmsCategoryByCode(mediaCategory, siteModel), siteModel);
+            mediaContentIndex.register(hash, siteModel, secure, mediaModel);
+            return mediaModel;
+        } finally {
+            contentLock.unlock();
         }
-        if (CollectionUtils.isNotEmpty(errorRows)) {
-            log.error("Some items could not be imported");
-            return new ImmutablePair<>(Boolean.FALSE, "ERROR ROWS: " + convertObjectToJson(errorRows));
-        } else {
-            log.info(String.format("%s of %s finished file integration...", data.size(), itemType));
-            return new ImmutablePair<>(Boolean.TRUE, String.format("%s of %s finished file integration...", data.size(), itemType));
+    }
+
+    /**
+     * Downloads the url with at most {@code csv.media.fetch.per.host} concurrent connections to the same host.
+     *
+     * @return content hash of the downloaded file
+     */
+    private String fetch(URL url, File file) throws IOException, InterruptedException {
+        var hostPermits = fetchPermits.computeIfAbsent(StringUtils.lowerCase(url.getHost()), host -> new Semaphore(fetchPerHost));
+        hostPermits.acquire();
+        try {
+            var connection = url.openConnection();
+            connection.setConnectTimeout(fetchTimeout);
+            connection.setReadTimeout(fetchTimeout);
+            try (var inputStream = MediaContentIndex.digest(connection.getInputStream())) {
+                FileUtils.copyInputStreamToFile(inputStream, file);
+                return MediaContentIndex.hashOf(inputStream);
+            }
+        } finally {
+            hostPermits.release();
         }
     }
 
-    private String getCellFieldValue(Map<String, String> row) {
+    private String getCellFieldValue(Row row) {
         if (StringUtils.isNotEmpty(row.get("field"))) {
             return row.get("field");
         } else if (StringUtils.isNotEmpty(row.get("field[mode=override]"))) {
@@ -259,29 +393,10 @@ public class MediaImportServiceImpl implements MediaImportService {
         }
     }
 
-    private String getRowField(Map<String, String> row, String fieldName) {
+    private String getRowField(Row row, String fieldName) {
         return row.get(fieldName);
     }
 
-    private Collection<ItemModel> findJavaType(String typeName) {
-        if (StringUtils.startsWith(typeName, "java.util.Set")) {
-            return new HashSet<>();
-        } else {
-            return new ArrayList<>();
-        }
-    }
-
-    private PropertyDescriptor getPropertyDescriptor(ItemModel model, String fieldName) throws
-            NoSuchFieldException,
-            IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-        var propertyDescription = PropertyUtils.getPropertyDescriptor(model, fieldName);
-        if (Objects.isNull(propertyDescription)) {
-            log.error("This field {} not contains on model {}...", fieldName, model);
-            throw new NoSuchFieldException(String.format("This field %s not contains on model %s...", fieldName, model));
-        }
-        return propertyDescription;
-    }
-
     private String clearFieldName(String fieldName) {
         var content = StringUtils.substringBetween(fieldName, "[", "]");
         fieldName = StringUtils.remove(fieldName, content);
@@ -290,71 +405,4 @@ public class MediaImportServiceImpl implements MediaImportService {
         return fieldName;
     }
 
-    private Object convertWrapperType(PropertyDescriptor propertyDescriptor, String value) throws ParseException {
-
-        Class tClass = PropertyUtils.getReadMethod(propertyDescriptor).getReturnType();
-
-        //boolean empty default false...
-        if (StringUtils.isEmpty(value)
-                && !StringUtils.equalsIgnoreCase(tClass.getSimpleName(), "boolean")) {
-            return null;
-        }
-
-        if (BooleanUtils.isTrue(tClass.isEnum())) {
-            var enumConstant = tClass.getEnumConstants();
-            var enumValue = Arrays.asList(enumConstant)
-                    .stream().filter(e -> StringUtils.equalsIgnoreCase(String.valueOf(e), value))
-                    .findFirst().orElseThrow(NoSuchFieldError::new);
-            return enumValue;
-        }
-
-        switch (tClass.getSimpleName()) {
-            case "Double":
-            case "double":
-                return Double.valueOf(value);
-            case "Integer":
-            case "int":
-                return Integer.valueOf(value);
-            case "Float":
-            case "float":
-                return Float.valueOf(value);
-            case "Long":
-            case "long":
-                return Long.valueOf(value);
-            case "boolean":
-            case "Boolean":
-                return BooleanUtils.toBoolean(value);
-
-            case "BigDecimal":
-                return new BigDecimal(value);
-
-            case "Date":
-                try {
-                    return DateUtils.parseDateStrictly(value, "dd.MM.yyyy", "dd.MM.yyyy HH:mm", "dd.MM.yyyy HH:mm:ss", "dd/MM/yyyy", "dd/MM/yyyy HH:mm", "dd/MM/yyyy HH:mm:ss");
-                } catch (final ParseException e) {
-                    log.error("Given date {} is not valid.", value);
-                    throw new ParseException("Given date " + value + " is not valid", -1);
-                }
-
-            case "Set":
-            case "List":
-                var rawType = StringUtils.substringBetween(propertyDescriptor.getReadMethod().getGenericReturnType().getTypeName(), "<", ">");
-                var splitedValuesStream = Arrays.asList(StringUtils.split(value, SEMICOLON)).stream();
-                switch (StringUtils.remove(rawType, "java.lang.")) {
-                    case "Integer":
-                        return new HashSet<>(splitedValuesStream.map(v -> Integer.valueOf(v)).collect(Collectors.toSet()));
-                    case "Double":
-                        return new HashSet<>(splitedValuesStream.map(v -> Double.valueOf(v)).collect(Collectors.toSet()));
-                    default:
-                        return new HashSet<>(splitedValuesStream.map(v -> String.valueOf(v)).collect(Collectors.toSet()));
-                }
-
-            default:
-                return value;
-
-        }
-
-    }
-
 }
-
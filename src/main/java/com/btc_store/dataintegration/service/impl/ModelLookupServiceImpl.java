@@ -0,0 +1,245 @@
+package com.btc_store.dataintegration.service.impl;
+
+import com.btc_store.dataintegration.binder.PropertyBinders;
+import com.btc_store.dataintegration.lookup.LookupKey;
+import com.btc_store.dataintegration.lookup.ReferenceDictionary;
+import com.btc_store.dataintegration.service.ModelLookupService;
+import com.btc_store.domain.enums.SearchOperator;
+import com.btc_store.domain.model.custom.extend.ItemModel;
+import com.btc_store.service.SearchService;
+import com.btc_store.service.exception.model.ModelNotFoundException;
+import com.google.common.collect.Iterables;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.PluralAttribute;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves many models by their key attributes with one criteria query per batch instead of one
+ * {@link SearchService#searchSingleResult} call per key. The result holds a found model or an empty value for every
+ * key the bulk query could decide; keys it can not answer unambiguously are left out, so callers fall back to
+ * {@link SearchService} for them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ModelLookupServiceImpl implements ModelLookupService {
+
+    private static final int MAX_REPORTED_REFERENCES = 50;
+
+    @Value("${csv.import.lookup.batch.size}")
+    private int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    protected final SearchService searchService;
+
+    @Override
+    public <T extends ItemModel> Map<LookupKey, Optional<T>> searchByKeys(Class<T> itemType, Collection<LookupKey> keys) {
+        var result = new HashMap<LookupKey, Optional<T>>();
+        //keys having the same attributes are queried together...
+        var keysByAttributes = keys.stream().distinct().collect(Collectors.groupingBy(k -> k.getParams().keySet()));
+        for (var sameAttributeKeys : keysByAttributes.values()) {
+            for (var batch : Iterables.partition(sameAttributeKeys, batchSize)) {
+                try {
+                    result.putAll(searchBatch(itemType, batch));
+                } catch (Exception e) {
+                    log.warn("Bulk search of {} could not be done, keys will be searched one by one...{}", itemType.getSimpleName(), ExceptionUtils.getMessage(e));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ReferenceDictionary resolveReferences(Map<Class<?>, Set<LookupKey>> references) {
+        var dictionary = new HashMap<Pair<Class<?>, LookupKey>, ItemModel>();
+        var unresolved = new ArrayList<String>();
+        for (var reference : references.entrySet()) {
+            var type = (Class<ItemModel>) reference.getKey();
+            var found = searchByKeys(type, reference.getValue());
+            for (var key : reference.getValue()) {
+                ItemModel model = found.getOrDefault(key, Optional.empty()).orElse(null);
+                if (Objects.isNull(model)) {
+                    try {
+                        model = searchService.searchSingleResult(type, (Map) key.getParams(), SearchOperator.AND);
+                    } catch (ModelNotFoundException e) {
+                        unresolved.add(type.getSimpleName() + key);
+                        continue;
+                    }
+                }
+                dictionary.put(new ImmutablePair<>(type, key), model);
+            }
+        }
+
+        if (CollectionUtils.isNotEmpty(unresolved)) {
+            throw new IllegalArgumentException(String.format("%s relation value(s) could not be found : %s", unresolved.size(),
+                    unresolved.stream().limit(MAX_REPORTED_REFERENCES).collect(Collectors.joining(", "))));
+        }
+        log.info("{} distinct relation value(s) resolved before conversion", dictionary.size());
+        return new ReferenceDictionary(dictionary);
+    }
+
+    @Override
+    public Object identifierOf(ItemModel model) {
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(model);
+    }
+
+    @Override
+    public <T extends ItemModel> List<Object> searchIds(Class<T> itemType, Map<String, Object> params, Map<String, Object> excludedParams,
+                                                        Object after, int limit) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Object.class);
+        var root = query.from(itemType);
+        Path<Comparable<Object>> idPath = root.get(idAttributeName(itemType));
+
+        var predicates = new ArrayList<Predicate>();
+        params.forEach((attribute, value) -> predicates.add(criteriaBuilder.equal(root.get(attribute), value)));
+        excludedParams.forEach((attribute, value) -> predicates.add(criteriaBuilder.or(criteriaBuilder.isNull(root.get(attribute)),
+                criteriaBuilder.notEqual(root.get(attribute), value))));
+        //keyset paging, records removed from passed pages do not shift the next page...
+        if (Objects.nonNull(after)) {
+            predicates.add(criteriaBuilder.greaterThan(idPath, (Comparable<Object>) after));
+        }
+        query.select(idPath).where(predicates.toArray(Predicate[]::new)).orderBy(criteriaBuilder.asc(idPath));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public <T extends ItemModel> List<T> searchByIds(Class<T> itemType, Collection<Object> ids) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return List.of();
+        }
+        var result = new ArrayList<T>(ids.size());
+        for (var batch : Iterables.partition(ids, batchSize)) {
+            var criteriaBuilder = entityManager.getCriteriaBuilder();
+            var query = criteriaBuilder.createQuery(itemType);
+            var root = query.from(itemType);
+            query.select(root).where(root.get(idAttributeName(itemType)).in(batch));
+            result.addAll(entityManager.createQuery(query).getResultList());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isReferenced(ItemModel model) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        //every association which can hold the model is queried...
+        for (var entityType : entityManager.getMetamodel().getEntities()) {
+            for (var attribute : entityType.getDeclaredAttributes()) {
+                Class<?> type = attribute instanceof PluralAttribute<?, ?, ?> pluralAttribute
+                        ? pluralAttribute.getElementType().getJavaType() : attribute.getJavaType();
+                if (!attribute.isAssociation() || !type.isInstance(model)) {
+                    continue;
+                }
+                var query = criteriaBuilder.createQuery(Long.class);
+                var root = query.from(entityType.getJavaType());
+                Expression<?> path = attribute.isCollection() ? root.join(attribute.getName()) : root.get(attribute.getName());
+                query.select(criteriaBuilder.count(root)).where(criteriaBuilder.equal(path, model));
+                if (entityManager.createQuery(query).getSingleResult() > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String idAttributeName(Class<?> itemType) {
+        var entityType = entityManager.getMetamodel().entity(itemType);
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+
+    private <T extends ItemModel> Map<LookupKey, Optional<T>> searchBatch(Class<T> itemType, List<LookupKey> keys) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(itemType);
+        var root = query.from(itemType);
+
+        var requested = new HashMap<Map<String, Object>, LookupKey>();
+        var predicates = new ArrayList<Predicate>();
+        for (var key : keys) {
+            var normalizedKey = new HashMap<String, Object>();
+            var parts = new ArrayList<Predicate>();
+            try {
+                for (var entry : key.getParams().entrySet()) {
+                    Path<Object> path = root.get(entry.getKey());
+                    if (Objects.isNull(entry.getValue())) {
+                        parts.add(criteriaBuilder.isNull(path));
+                        normalizedKey.put(entry.getKey(), null);
+                    } else {
+                        var value = convert(entry.getValue(), path.getJavaType());
+                        parts.add(criteriaBuilder.equal(path, value));
+                        normalizedKey.put(entry.getKey(), normalize(value));
+                    }
+                }
+            } catch (RuntimeException e) {
+                //value can not be mapped to the attribute type, search service will decide...
+                log.debug("{}{} is skipped from bulk search...{}", itemType.getSimpleName(), key, ExceptionUtils.getMessage(e));
+                continue;
+            }
+            predicates.add(criteriaBuilder.and(parts.toArray(Predicate[]::new)));
+            requested.put(normalizedKey, key);
+        }
+        if (predicates.isEmpty()) {
+            return Map.of();
+        }
+        query.select(root).where(criteriaBuilder.or(predicates.toArray(Predicate[]::new)));
+
+        var attributes = keys.get(0).getParams().keySet();
+        var result = new HashMap<LookupKey, Optional<T>>();
+        var ambiguous = new HashSet<LookupKey>();
+        var isAllMatched = true;
+        for (var model : entityManager.createQuery(query).getResultList()) {
+            var modelKey = new HashMap<String, Object>();
+            for (var attribute : attributes) {
+                modelKey.put(attribute, normalize(PropertyBinders.find(itemType, attribute).get(model)));
+            }
+
+            var key = requested.get(modelKey);
+            if (Objects.isNull(key)) {
+                //database matched a value java does not, e.g. by its collation or a timestamp of a date...
+                isAllMatched = false;
+            } else if (Objects.nonNull(result.put(key, Optional.of(model)))) {
+                ambiguous.add(key);
+            }
+        }
+        //more than one record for the same key is left to the search service...
+        ambiguous.forEach(result::remove);
+        //keys are known to be missing only when every record is matched to its key, otherwise search service decides...
+        if (isAllMatched) {
+            requested.values().forEach(key -> result.putIfAbsent(key, Optional.empty()));
+        }
+        return result;
+    }
+
+    private Object convert(Object value, Class<?> javaType) {
+        if (value instanceof String && !String.class.equals(javaType)) {
+            return DefaultConversionService.getSharedInstance().convert(value, javaType);
+        }
+        return value;
+    }
+
+    private Object normalize(Object value) {
+        if (value instanceof ItemModel model) {
+            return identifierOf(model);
+        } else if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros();
+        }
+        return value;
+    }
+}
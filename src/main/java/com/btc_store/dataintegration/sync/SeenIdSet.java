@@ -0,0 +1,54 @@
+package com.btc_store.dataintegration.sync;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Identifiers of the records given by a sync feed. Numeric identifiers are kept in a sorted {@code long} array, so
+ * millions of rows take a few megabytes; other identifier types fall back to a hash set.
+ */
+public class SeenIdSet {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] numericIds = new long[INITIAL_CAPACITY];
+    private int size;
+    private boolean sorted = true;
+    private final Set<Object> otherIds = new HashSet<>();
+
+    public synchronized void add(Object id) {
+        if (id instanceof Long || id instanceof Integer || id instanceof Short) {
+            add(((Number) id).longValue());
+        } else {
+            otherIds.add(id);
+        }
+    }
+
+    public synchronized void add(long id) {
+        if (size == numericIds.length) {
+            numericIds = Arrays.copyOf(numericIds, size + (size >> 1));
+        }
+        numericIds[size++] = id;
+        sorted = false;
+    }
+
+    public synchronized boolean contains(Object id) {
+        if (id instanceof Long || id instanceof Integer || id instanceof Short) {
+            return contains(((Number) id).longValue());
+        }
+        return otherIds.contains(id);
+    }
+
+    public synchronized boolean contains(long id) {
+        if (!sorted) {
+            Arrays.sort(numericIds, 0, size);
+            sorted = true;
+        }
+        return Arrays.binarySearch(numericIds, 0, size, id) >= 0;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0 && otherIds.isEmpty();
+    }
+}
@@ -0,0 +1,165 @@
+package com.btc_store.dataintegration.csv;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvException;
+import org.apache.commons.io.input.BOMInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCsvReaderTest {
+
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void readsRowsCrossingTheWindow() throws IOException {
+        var file = write("code,name\r\n1,\"a\r\nb\"\r\n2,\"c,\"\"d\"\"\"\r\n3,e\r\n", false);
+        var expected = List.of(List.of("code", "name"), List.of("1", "a\r\nb"), List.of("2", "c,\"d\""), List.of("3", "e"));
+        //every window size moves the window bound to another byte of the quoted cells and the line ends...
+        for (var windowSize = 16; windowSize <= 48; windowSize++) {
+            assertEquals(expected, read(file, windowSize), "window size " + windowSize);
+        }
+    }
+
+    @Test
+    void skipsByteOrderMark() throws IOException {
+        var file = write("code,name\n1,a\n", true);
+        try (var reader = new MappedCsvReader(file)) {
+            assertArrayEquals(new String[]{"code", "name"}, reader.getHeaders());
+            assertTrue(reader.nextRow());
+            assertArrayEquals(new String[]{"1", "a"}, reader.values());
+        }
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        var file = write("code,name\n\"say \"\"hi\"\"\",\"\"\"\"\n", false);
+        assertEquals(List.of(List.of("code", "name"), List.of("say \"hi\"", "\"")), read(file, WINDOW_SIZE));
+    }
+
+    @Test
+    void readsLastRowWithoutLineEnd() throws IOException {
+        assertEquals(List.of(List.of("code", "name"), List.of("1", "a")), read(write("code,name\n1,a", false), WINDOW_SIZE));
+        assertEquals(List.of(List.of("code", "name"), List.of("1", "a")), read(write("code,name\r1,\"a\"", false), 12));
+    }
+
+    @Test
+    void ignoresBlankLinesAndTrimsValues() throws IOException {
+        var file = write("code,name\n\n 1 ,\" a \"\r\n\r\n2,\n", false);
+        assertEquals(List.of(List.of("code", "name"), List.of("1", "a"), List.of("2", "")), read(file, WINDOW_SIZE));
+    }
+
+    @Test
+    void countsRowsOfTheFile() throws IOException {
+        var file = write("code\n1\n2\n", false);
+        try (var reader = new MappedCsvReader(file)) {
+            assertTrue(reader.nextRow());
+            assertTrue(reader.nextRow());
+            assertEquals(2, reader.getRowNumber());
+            assertFalse(reader.nextRow());
+        }
+    }
+
+    @Test
+    void failsOnUnclosedQuote() throws IOException {
+        var file = write("code,name\n1,\"a\n2,b\n", false);
+        try (var reader = new MappedCsvReader(file)) {
+            var e = assertThrows(IllegalArgumentException.class, reader::nextRow);
+            assertEquals("Csv row 1 has an unclosed quote", e.getMessage());
+        }
+    }
+
+    @Test
+    void failsOnCharactersAfterClosingQuote() throws IOException {
+        var file = write("code,name\n1,\"a\"b\n", false);
+        try (var reader = new MappedCsvReader(file)) {
+            assertThrows(IllegalArgumentException.class, reader::nextRow);
+        }
+    }
+
+    @Test
+    void failsOnRowLargerThanWindow() throws IOException {
+        var file = write("code,name\n1,abcdefghijklmnopqrstuvwxyz\n", false);
+        try (var reader = new MappedCsvReader(file, 16)) {
+            var e = assertThrows(IllegalArgumentException.class, reader::nextRow);
+            assertEquals("Csv row 1 is larger than 16 bytes", e.getMessage());
+        }
+    }
+
+    @Test
+    void readsEmptyFile() throws IOException {
+        try (var reader = new MappedCsvReader(write("", true))) {
+            assertNull(reader.getHeaders());
+            assertFalse(reader.nextRow());
+        }
+    }
+
+    @Test
+    void readsSameValuesAsOpencsv() throws IOException {
+        var content = "code,name,description,price\r\n"
+                + "1,Çanta,\"Deri, siyah\",100\r\n"
+                + "2,\"Kalem \"\"mavi\"\"\",\"ilk satır\nikinci satır\",2.5\r\n"
+                + "3,,\"\",\r\n"
+                + "4,\"a,b,c\",\"\"\"\",7\n"
+                + "5,Şişe,cam,12";
+        for (var hasBom : List.of(false, true)) {
+            var file = write(content, hasBom);
+            var expected = readByOpencsv(file);
+            assertEquals(6, expected.size());
+            for (var windowSize : List.of(64L, 100L, WINDOW_SIZE)) {
+                assertEquals(expected, read(file, windowSize), "window size " + windowSize);
+            }
+        }
+    }
+
+    private Path write(String content, boolean hasBom) throws IOException {
+        var file = Files.createTempFile(folder, "mapped", ".csv");
+        var bytes = content.getBytes(StandardCharsets.UTF_8);
+        Files.write(file, hasBom ? concat(BOM, bytes) : bytes);
+        return file;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        var bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+    private static List<List<String>> read(Path file, long windowSize) throws IOException {
+        var rows = new ArrayList<List<String>>();
+        try (var reader = new MappedCsvReader(file, windowSize)) {
+            rows.add(List.of(reader.getHeaders()));
+            while (reader.nextRow()) {
+                rows.add(List.of(reader.values()));
+            }
+        }
+        return rows;
+    }
+
+    //values are trimmed the same way the mapped reader trims them...
+    private static List<List<String>> readByOpencsv(Path file) throws IOException {
+        var rows = new ArrayList<List<String>>();
+        try (var reader = new CSVReader(new InputStreamReader(new BOMInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            for (var values : reader.readAll()) {
+                rows.add(Arrays.stream(values).map(String::trim).toList());
+            }
+        } catch (CsvException e) {
+            throw new IOException(e);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,167 @@
+package com.btc_store.dataintegration.multipart;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartReaderTest {
+
+    private static final String BOUNDARY = "----boundary42";
+
+    @Test
+    void readsPartsWhenDelimiterIsSplitAcrossReads() throws IOException {
+        var body = multipart(List.of(filePart("file", "Save_Product.csv", "code;name\n1;a\n2;b")), null);
+        //every read returns at most three bytes, so the delimiter is found over several fills...
+        try (var reader = new MultipartReader(new ChunkedInputStream(body, 3), BOUNDARY)) {
+            var part = reader.nextPart();
+            assertEquals("file", part.name());
+            assertEquals("Save_Product.csv", part.fileName());
+            assertEquals("code;name\n1;a\n2;b", read(part.body()));
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    void readsLargePartWhenDelimiterCrossesTheBuffer() throws IOException {
+        var content = "x".repeat(64 * 1024 - 7) + "\r\n-" + "y".repeat(70_000);
+        var body = multipart(List.of(filePart("file", "big.csv", content), fieldPart("site", "electronic")), null);
+        try (var reader = new MultipartReader(new ChunkedInputStream(body, 8191), BOUNDARY)) {
+            assertEquals(content, read(reader.nextPart().body()));
+            assertEquals("electronic", read(reader.nextPart().body()));
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    void readsPartByteByByte() throws IOException {
+        var content = "code;name\r\n1;a\r\n--2;b";
+        var body = multipart(List.of(filePart("file", "a.csv", content), fieldPart("site", "electronic")), null);
+        try (var reader = new MultipartReader(new ChunkedInputStream(body, 7), BOUNDARY)) {
+            var part = reader.nextPart().body();
+            var read = new StringBuilder();
+            int b;
+            while ((b = part.read()) >= 0) {
+                read.append((char) b);
+            }
+            assertEquals(content, read.toString());
+            assertEquals("electronic", read(reader.nextPart().body()));
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    void skipsPreamble() throws IOException {
+        var body = multipart(List.of(fieldPart("site", "electronic")), "This is a preamble\r\n--not the boundary\r\n");
+        try (var reader = new MultipartReader(new ByteArrayInputStream(body), BOUNDARY)) {
+            var part = reader.nextPart();
+            assertEquals("site", part.name());
+            assertNull(part.fileName());
+            assertEquals("electronic", read(part.body()));
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    void keepsLineBreakAndDashesWhichAreNotTheBoundary() throws IOException {
+        var content = "first\r\n--second\r\n----boundary4\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "\r\nlast";
+        var body = multipart(List.of(filePart("file", "a.csv", content)), null);
+        try (var reader = new MultipartReader(new ChunkedInputStream(body, 5), BOUNDARY)) {
+            assertEquals(content, read(reader.nextPart().body()));
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    void skipsPartWhichIsNotRead() throws IOException {
+        var body = multipart(List.of(fieldPart("site", "electronic"), filePart("file", "a.csv", "code\n1")), null);
+        try (var reader = new MultipartReader(new ChunkedInputStream(body, 2), BOUNDARY)) {
+            assertEquals("site", reader.nextPart().name());
+            var part = reader.nextPart();
+            assertEquals("a.csv", part.fileName());
+            assertEquals("code\n1", read(part.body()));
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    void readsHeadersOfPart() throws IOException {
+        var body = multipart(List.of(filePart("file", "a.csv", "code")), null);
+        try (var reader = new MultipartReader(new ByteArrayInputStream(body), BOUNDARY)) {
+            var part = reader.nextPart();
+            assertEquals("text/csv", part.headers().get("content-type"));
+        }
+    }
+
+    @Test
+    void failsOnTruncatedBody() throws IOException {
+        var body = multipart(List.of(filePart("file", "a.csv", "code\n1\n2\n3")), null);
+        var truncated = new String(body, StandardCharsets.ISO_8859_1).substring(0, body.length - BOUNDARY.length() - 10)
+                .getBytes(StandardCharsets.ISO_8859_1);
+        try (var reader = new MultipartReader(new ChunkedInputStream(truncated, 4), BOUNDARY)) {
+            var part = reader.nextPart();
+            assertThrows(EOFException.class, () -> read(part.body()));
+        }
+    }
+
+    @Test
+    void failsOnBodyEndingInHeaders() {
+        var truncated = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; na").getBytes(StandardCharsets.ISO_8859_1);
+        assertThrows(EOFException.class, () -> {
+            try (var reader = new MultipartReader(new ByteArrayInputStream(truncated), BOUNDARY)) {
+                reader.nextPart();
+            }
+        });
+    }
+
+    @Test
+    void rejectsMissingBoundary() {
+        assertThrows(IllegalArgumentException.class, () -> new MultipartReader(new ByteArrayInputStream(new byte[0]), ""));
+    }
+
+    private static String filePart(String name, String fileName, String content) {
+        return "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n" + content;
+    }
+
+    private static String fieldPart(String name, String value) {
+        return "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value;
+    }
+
+    private static byte[] multipart(List<String> parts, String preamble) {
+        var body = new StringBuilder(preamble == null ? "" : preamble);
+        for (var part : parts) {
+            body.append("--").append(BOUNDARY).append("\r\n").append(part).append("\r\n");
+        }
+        body.append("--").append(BOUNDARY).append("--\r\n");
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns at most the given number of bytes on every read, like a slow request stream.
+     */
+    private static class ChunkedInputStream extends ByteArrayInputStream {
+
+        private final int chunkSize;
+
+        private ChunkedInputStream(byte[] bytes, int chunkSize) {
+            super(bytes);
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public synchronized int read(byte[] bytes, int offset, int length) {
+            return super.read(bytes, offset, Math.min(length, chunkSize));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.btc_store.dataintegration.partition;
+
+import com.btc_store.dataintegration.row.Row;
+import com.btc_store.dataintegration.row.RowHeader;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SitePartitionerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final RowHeader HEADER = RowHeader.of("code", "site");
+
+    @Test
+    void importsRowsOfEverySiteInReadOrder() {
+        var imported = new ConcurrentHashMap<String, List<String>>();
+        var results = assertTimeoutPreemptively(TIMEOUT, () -> new SitePartitioner("site", 4, 7, 2)
+                .run(rows(300, "electronic", "textile", "food"), (siteCode, siteRows) -> {
+                    var codes = new ArrayList<String>();
+                    siteRows.forEachRemaining(row -> {
+                        assertEquals(siteCode, row.get("site"));
+                        codes.add(row.get("code"));
+                    });
+                    imported.put(siteCode, codes);
+                    return new ImmutablePair<>(Boolean.TRUE, codes.size() + " rows");
+                }));
+
+        assertEquals(List.of("electronic", "textile", "food"), List.copyOf(results.keySet()));
+        results.values().forEach(result -> assertEquals(Pair.of(Boolean.TRUE, "100 rows"), result));
+        for (var siteCode : results.keySet()) {
+            var codes = imported.get(siteCode).stream().map(Integer::valueOf).toList();
+            assertEquals(codes.stream().sorted().toList(), codes, "rows of " + siteCode + " are not in read order");
+        }
+    }
+
+    @Test
+    void failedSiteDoesNotStopOtherSites() {
+        var results = assertTimeoutPreemptively(TIMEOUT, () -> new SitePartitioner("site", 4, 5, 2)
+                .run(rows(300, "electronic", "textile", "food"), (siteCode, siteRows) -> {
+                    if (siteCode.equals("textile")) {
+                        siteRows.next();
+                        throw new IllegalStateException("textile could not be saved");
+                    }
+                    var count = new AtomicInteger();
+                    siteRows.forEachRemaining(row -> count.incrementAndGet());
+                    return new ImmutablePair<>(Boolean.TRUE, count + " rows");
+                }));
+
+        assertEquals(Pair.of(Boolean.TRUE, "100 rows"), results.get("electronic"));
+        assertEquals(Pair.of(Boolean.TRUE, "100 rows"), results.get("food"));
+        assertFalse(results.get("textile").getKey());
+        assertTrue(results.get("textile").getValue().contains("textile could not be saved"));
+    }
+
+    @Test
+    void readFailureFailsUnfinishedSites() {
+        var rows = failingAfter(rows(100, "electronic", "textile"), 50, new IllegalArgumentException("body is not valid json"));
+        var results = assertTimeoutPreemptively(TIMEOUT, () -> new SitePartitioner("site", 4, 5, 2)
+                .run(rows, (siteCode, siteRows) -> {
+                    siteRows.forEachRemaining(row -> {
+                    });
+                    return new ImmutablePair<>(Boolean.TRUE, "imported");
+                }));
+
+        assertEquals(2, results.size());
+        results.values().forEach(result -> {
+            assertFalse(result.getKey());
+            assertTrue(result.getValue().contains("body is not valid json"));
+        });
+    }
+
+    @Test
+    void throwsReadFailureBeforeFirstRow() {
+        var rows = failingAfter(rows(10, "electronic"), 0, new IllegalArgumentException("body is not valid json"));
+        var thrown = assertThrows(IllegalArgumentException.class, () -> new SitePartitioner("site", 4, 5, 2)
+                .run(rows, (siteCode, siteRows) -> new ImmutablePair<>(Boolean.TRUE, "imported")));
+        assertEquals("body is not valid json", thrown.getMessage());
+    }
+
+    @Test
+    void failsSitesOverTheLimit() {
+        var results = assertTimeoutPreemptively(TIMEOUT, () -> new SitePartitioner("site", 2, 5, 2)
+                .run(rows(30, "electronic", "textile", "food"), (siteCode, siteRows) -> {
+                    siteRows.forEachRemaining(row -> {
+                    });
+                    return new ImmutablePair<>(Boolean.TRUE, "imported");
+                }));
+
+        assertEquals(List.of("electronic", "textile"), List.copyOf(results.keySet()));
+        results.values().forEach(result -> {
+            assertFalse(result.getKey());
+            assertTrue(result.getValue().contains("more than 2 sites"));
+        });
+    }
+
+    @Test
+    void failsRowWithoutSite() {
+        var rows = List.of(row("1", "electronic"), row("2", "")).iterator();
+        var results = assertTimeoutPreemptively(TIMEOUT, () -> new SitePartitioner("site", 2, 5, 2)
+                .run(rows, (siteCode, siteRows) -> {
+                    siteRows.forEachRemaining(row -> {
+                    });
+                    return new ImmutablePair<>(Boolean.TRUE, "imported");
+                }));
+
+        assertFalse(results.get("electronic").getKey());
+        assertTrue(results.get("electronic").getValue().contains("site field must not be null"));
+    }
+
+    @Test
+    void blocksReadingWhileSiteIsBehind() throws Exception {
+        var chunkSize = 5;
+        var queueCapacity = 2;
+        var readRows = new AtomicInteger();
+        var importAllowed = new CountDownLatch(1);
+        var rows = rows(1000, "electronic");
+        var countedRows = new Iterator<Row>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                readRows.incrementAndGet();
+                return rows.next();
+            }
+        };
+        var executorService = Executors.newSingleThreadExecutor();
+        try {
+            var results = executorService.submit(() -> new SitePartitioner("site", 2, chunkSize, queueCapacity)
+                    .run(countedRows, (siteCode, siteRows) -> {
+                        importAllowed.await();
+                        siteRows.forEachRemaining(row -> {
+                        });
+                        return new ImmutablePair<>(Boolean.TRUE, "imported");
+                    }));
+
+            Thread.sleep(500);
+            //rows of a site are its full queue and the chunk waiting to be queued...
+            assertTrue(readRows.get() <= chunkSize * (queueCapacity + 1), readRows.get() + " rows are read while nothing is imported");
+
+            importAllowed.countDown();
+            assertTrue(results.get(30, TimeUnit.SECONDS).get("electronic").getKey());
+            assertEquals(1000, readRows.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * @return rows whose sites follow each other in the given order
+     */
+    private static Iterator<Row> rows(int count, String... siteCodes) {
+        var rows = new ArrayList<Row>(count);
+        for (var i = 0; i < count; i++) {
+            rows.add(row(String.valueOf(i), siteCodes[i % siteCodes.length]));
+        }
+        return rows.iterator();
+    }
+
+    private static Row row(String code, String siteCode) {
+        return new Row(HEADER, new String[]{code, siteCode});
+    }
+
+    private static Iterator<Row> failingAfter(Iterator<Row> rows, int count, RuntimeException failure) {
+        return new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                if (read++ == count) {
+                    throw failure;
+                }
+                return rows.next();
+            }
+        };
+    }
+}
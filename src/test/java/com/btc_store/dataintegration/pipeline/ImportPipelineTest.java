@@ -0,0 +1,211 @@
+package com.btc_store.dataintegration.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportPipelineTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void commitsRowsOfTheSameKeyInReadOrder() {
+        var persisted = Collections.synchronizedList(new ArrayList<Integer>());
+        var count = assertTimeoutPreemptively(TIMEOUT, () -> new ImportPipeline<Integer, Integer>(4, 5, 2)
+                .run(rows(1000), row -> row % 7, converters(), persisted::addAll, committedRows -> {
+                }));
+
+        assertEquals(1000, count);
+        assertEquals(1000, persisted.size());
+        assertEquals(IntStream.range(0, 1000).boxed().toList(), persisted.stream().sorted().toList());
+        var lastOfKey = new HashMap<Integer, Integer>();
+        for (var row : persisted) {
+            var last = lastOfKey.put(row % 7, row);
+            assertTrue(Objects.isNull(last) || last < row, "row " + row + " is committed after row " + last);
+        }
+    }
+
+    @Test
+    void convertsNextChunkOnlyAfterPreviousOneIsCommitted() {
+        Supplier<ImportPipeline.Converter<Integer, Integer>> converters = () -> new ImportPipeline.Converter<>() {
+            private boolean isPending;
+
+            @Override
+            public List<Integer> convert(List<Integer> chunk) {
+                if (isPending) {
+                    throw new IllegalStateException("Chunk is converted before the previous one is committed");
+                }
+                isPending = true;
+                return new ArrayList<>(chunk);
+            }
+
+            @Override
+            public void committed() {
+                isPending = false;
+            }
+        };
+
+        var count = assertTimeoutPreemptively(TIMEOUT, () -> new ImportPipeline<Integer, Integer>(3, 4, 4)
+                .run(rows(500), row -> row % 2, converters, models -> Thread.sleep(1), committedRows -> {
+                }));
+        assertEquals(500, count);
+    }
+
+    @Test
+    void reportsOnlyLeadingRowsWhichAreAllCommitted() {
+        var persisted = ConcurrentHashMap.<Integer>newKeySet();
+        var reported = new ArrayList<Integer>();
+        assertTimeoutPreemptively(TIMEOUT, () -> new ImportPipeline<Integer, Integer>(4, 3, 2)
+                .run(rows(600), row -> null, converters(), models -> {
+                    //later chunks of some workers are committed before earlier chunks of the others...
+                    Thread.sleep(models.get(0) % 4);
+                    persisted.addAll(models);
+                }, committedRows -> {
+                    for (var row = 0; row < committedRows; row++) {
+                        assertTrue(persisted.contains(row), "row " + row + " is reported before it is committed");
+                    }
+                    reported.add(committedRows);
+                }));
+
+        assertEquals(600, reported.get(reported.size() - 1));
+        for (var i = 1; i < reported.size(); i++) {
+            assertTrue(reported.get(i - 1) <= reported.get(i), "committed rows went back from " + reported.get(i - 1));
+        }
+    }
+
+    @Test
+    void throwsFirstConversionFailureAndStopsEveryStage() {
+        var failure = new IllegalArgumentException("row 50 is not valid");
+        var readRows = new AtomicInteger();
+        var persistedRows = new AtomicInteger();
+        Supplier<ImportPipeline.Converter<Integer, Integer>> converters = () -> new ImportPipeline.Converter<>() {
+            @Override
+            public List<Integer> convert(List<Integer> chunk) {
+                if (chunk.contains(50)) {
+                    throw failure;
+                }
+                return new ArrayList<>(chunk);
+            }
+
+            @Override
+            public void committed() {
+            }
+        };
+
+        var thrown = assertThrows(IllegalArgumentException.class, () -> assertTimeoutPreemptively(TIMEOUT,
+                () -> new ImportPipeline<Integer, Integer>(2, 10, 2).run(counted(rows(1_000_000), readRows), row -> null, converters,
+                        models -> persistedRows.addAndGet(models.size()), committedRows -> {
+                        })));
+
+        assertSame(failure, thrown);
+        assertTrue(readRows.get() < 1_000_000, "reading did not stop");
+        assertTrue(persistedRows.get() < readRows.get());
+    }
+
+    @Test
+    void throwsPersistFailure() {
+        var readRows = new AtomicInteger();
+        var thrown = assertThrows(IllegalStateException.class, () -> assertTimeoutPreemptively(TIMEOUT,
+                () -> new ImportPipeline<Integer, Integer>(2, 10, 2).run(counted(rows(1_000_000), readRows), row -> null, converters(),
+                        models -> {
+                            throw new IllegalStateException("database is down");
+                        }, committedRows -> {
+                        })));
+
+        assertEquals("database is down", thrown.getMessage());
+        assertTrue(readRows.get() < 1_000_000, "reading did not stop");
+    }
+
+    @Test
+    void throwsReadFailure() {
+        var rows = new Iterator<Integer>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (next == 25) {
+                    throw new IllegalArgumentException("body is not valid json");
+                }
+                return next++;
+            }
+        };
+
+        var thrown = assertThrows(IllegalArgumentException.class, () -> assertTimeoutPreemptively(TIMEOUT,
+                () -> new ImportPipeline<Integer, Integer>(2, 10, 2).run(rows, row -> null, converters(), models -> {
+                }, committedRows -> {
+                })));
+        assertEquals("body is not valid json", thrown.getMessage());
+    }
+
+    @Test
+    void blocksReadingWhileCommitsAreBehind() throws Exception {
+        var workers = 2;
+        var chunkSize = 10;
+        var queueCapacity = 2;
+        var readRows = new AtomicInteger();
+        var persistAllowed = new CountDownLatch(1);
+        var executorService = Executors.newSingleThreadExecutor();
+        try {
+            var result = executorService.submit(() -> new ImportPipeline<Integer, Integer>(workers, chunkSize, queueCapacity)
+                    .run(counted(rows(10_000), readRows), row -> null, converters(), models -> persistAllowed.await(), committedRows -> {
+                    }));
+
+            Thread.sleep(500);
+            //rows of a worker are a chunk being filled, its queue and a chunk waiting for its commit...
+            var bound = chunkSize * workers * (queueCapacity + 2);
+            assertTrue(readRows.get() <= bound, readRows.get() + " rows are read while nothing is committed");
+
+            persistAllowed.countDown();
+            assertEquals(10_000, result.get(30, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static Iterator<Integer> rows(int count) {
+        return IntStream.range(0, count).iterator();
+    }
+
+    private static Iterator<Integer> counted(Iterator<Integer> rows, AtomicInteger readRows) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                readRows.incrementAndGet();
+                return rows.next();
+            }
+        };
+    }
+
+    private static Supplier<ImportPipeline.Converter<Integer, Integer>> converters() {
+        return () -> new ImportPipeline.Converter<>() {
+            @Override
+            public List<Integer> convert(List<Integer> chunk) {
+                return new ArrayList<>(chunk);
+            }
+
+            @Override
+            public void committed() {
+            }
+        };
+    }
+}
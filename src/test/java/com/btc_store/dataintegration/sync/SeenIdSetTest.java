@@ -0,0 +1,82 @@
+package com.btc_store.dataintegration.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeenIdSetTest {
+
+    @Test
+    void findsNumericIdWhateverItsType() {
+        var seenIds = new SeenIdSet();
+        seenIds.add(Integer.valueOf(7));
+        seenIds.add(Long.valueOf(8));
+        seenIds.add(Short.valueOf((short) 9));
+
+        for (var id : new long[]{7, 8, 9}) {
+            assertTrue(seenIds.contains(id));
+            assertTrue(seenIds.contains(Long.valueOf(id)));
+            assertTrue(seenIds.contains(Integer.valueOf((int) id)));
+            assertTrue(seenIds.contains(Short.valueOf((short) id)));
+        }
+        assertFalse(seenIds.contains(10L));
+    }
+
+    @Test
+    void findsIdWhichIsNotNumeric() {
+        var seenIds = new SeenIdSet();
+        seenIds.add("P-1");
+        seenIds.add(1L);
+
+        assertTrue(seenIds.contains("P-1"));
+        assertFalse(seenIds.contains("P-2"));
+        //numeric text is not the same id as the number...
+        assertFalse(seenIds.contains("1"));
+    }
+
+    @Test
+    void findsEveryIdAddedInRandomOrder() {
+        var ids = new ArrayList<Long>();
+        LongStream.range(0, 10_000).forEach(id -> ids.add(id * 3));
+        Collections.shuffle(ids, new Random(42));
+
+        var seenIds = new SeenIdSet();
+        ids.forEach(seenIds::add);
+
+        for (var id = 0L; id < 30_000; id++) {
+            assertEquals(id % 3 == 0, seenIds.contains(id), "id " + id);
+        }
+    }
+
+    @Test
+    void findsIdsAddedAfterLookup() {
+        var seenIds = new SeenIdSet();
+        seenIds.add(5L);
+        assertTrue(seenIds.contains(5L));
+        assertFalse(seenIds.contains(1L));
+
+        seenIds.add(1L);
+        seenIds.add(-3L);
+        assertTrue(seenIds.contains(1L));
+        assertTrue(seenIds.contains(-3L));
+        assertTrue(seenIds.contains(5L));
+    }
+
+    @Test
+    void isEmptyUntilAnyIdIsAdded() {
+        assertTrue(new SeenIdSet().isEmpty());
+
+        var numeric = new SeenIdSet();
+        numeric.add(1L);
+        assertFalse(numeric.isEmpty());
+
+        var other = new SeenIdSet();
+        other.add("P-1");
+        assertFalse(other.isEmpty());
+    }
+}